@@ -0,0 +1,79 @@
+package com.usermanagement.benchmark;
+
+import com.usermanagement.audit.AuditDetails;
+import com.usermanagement.model.Role;
+import com.usermanagement.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation per audit event: the former "User: " + user (Lombok toString of the whole graph)
+ * against the compact AuditDetails payloads. Run with -prof gc and compare gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuditDetailsBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int roleCount;
+
+    private User user;
+
+    private List<String> rolesBefore;
+
+    @Setup
+    public void setUp() {
+        Set<Role> roles = new HashSet<>();
+        for (int i = 0; i < roleCount; i++) {
+            roles.add(new Role((long) i, "ROLE_" + i));
+        }
+        user = new User();
+        user.setId(42L);
+        user.setUsername("jdoe");
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setEmail("john.doe@example.com");
+        user.setCreatedBy("admin");
+        user.setRoles(roles);
+        rolesBefore = AuditDetails.roleNames(roles).subList(0, roleCount - 1);
+    }
+
+    @Benchmark
+    public String toStringDetails() {
+        return "User: " + user;
+    }
+
+    @Benchmark
+    public String createDetails() {
+        return AuditDetails.create()
+                .field("username", user.getUsername())
+                .field("createdBy", user.getCreatedBy())
+                .field("roles", AuditDetails.roleNames(user.getRoles()))
+                .toJson();
+    }
+
+    @Benchmark
+    public String updateDiffDetails() {
+        return AuditDetails.create()
+                .change("firstName", user.getFirstName(), "Johnny")
+                .change("lastName", user.getLastName(), user.getLastName())
+                .change("email", user.getEmail(), user.getEmail())
+                .field("updatedBy", "admin")
+                .toJson();
+    }
+
+    @Benchmark
+    public String assignRolesDiffDetails() {
+        return AuditDetails.create()
+                .change("roles", rolesBefore, AuditDetails.roleNames(user.getRoles()))
+                .toJson();
+    }
+}
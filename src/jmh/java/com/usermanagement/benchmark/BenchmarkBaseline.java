@@ -0,0 +1,103 @@
+package com.usermanagement.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file against a stored baseline and exits with status 1 when a benchmark
+ * regressed by more than the allowed percentage. Throughput must not drop, time-based modes must not grow
+ * and gc.alloc.rate.norm (when recorded with -prof gc) must not grow.
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec@jmh -Djmh.args="-prof gc -rf json -rff target/jmh-result.json"
+ * mvn -Pbenchmarks exec:java@jmh-baseline -Djmh.max-regression=10
+ * </pre>
+ */
+public final class BenchmarkBaseline {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private BenchmarkBaseline() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BenchmarkBaseline <result.json> <baseline.json> [max-regression-percent]");
+            System.exit(2);
+        }
+        double tolerance = (args.length > 2 ? Double.parseDouble(args[2]) : 10.0) / 100.0;
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> current = index(objectMapper.readTree(new File(args[0])));
+        Map<String, JsonNode> baseline = index(objectMapper.readTree(new File(args[1])));
+
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode expected = baseline.get(entry.getKey());
+            if (expected == null) {
+                System.out.printf("NEW   %s%n", entry.getKey());
+                continue;
+            }
+            JsonNode actual = entry.getValue();
+            boolean higherIsBetter = "thrpt".equals(actual.path("mode").asText());
+            compare(entry.getKey(), "score", score(expected), score(actual), higherIsBetter, tolerance, regressions);
+            compare(entry.getKey(), ALLOCATION_METRIC, allocation(expected), allocation(actual), false, tolerance, regressions);
+        }
+
+        if (!regressions.isEmpty()) {
+            System.out.printf("%d benchmark regression(s) beyond %.0f%%:%n", regressions.size(), tolerance * 100);
+            regressions.forEach(regression -> System.out.println("  " + regression));
+            System.exit(1);
+        }
+        System.out.println("No benchmark regressions beyond " + Math.round(tolerance * 100) + "%");
+    }
+
+    private static void compare(String key, String metric, double expected, double actual, boolean higherIsBetter,
+                                double tolerance, List<String> regressions) {
+        if (Double.isNaN(expected) || Double.isNaN(actual) || expected == 0) {
+            return;
+        }
+        double change = (actual - expected) / expected;
+        boolean regressed = higherIsBetter ? change < -tolerance : change > tolerance;
+        System.out.printf("%-5s %s %s: %.3f -> %.3f (%+.1f%%)%n", regressed ? "FAIL" : "OK", key, metric,
+                expected, actual, change * 100);
+        if (regressed) {
+            regressions.add(String.format("%s %s %+.1f%%", key, metric, change * 100));
+        }
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+            fields.forEachRemaining(field -> params.put(field.getKey(), field.getValue().asText()));
+            byKey.put(result.path("benchmark").asText() + " [" + result.path("mode").asText() + "] " + params, result);
+        }
+        return byKey;
+    }
+
+    private static double score(JsonNode result) {
+        return result.path("primaryMetric").path("score").asDouble(Double.NaN);
+    }
+
+    private static double allocation(JsonNode result) {
+        Iterator<Map.Entry<String, JsonNode>> metrics = result.path("secondaryMetrics").fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+                return metric.getValue().path("score").asDouble(Double.NaN);
+            }
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,83 @@
+package com.usermanagement.benchmark;
+
+import com.usermanagement.UserManagementServiceApplication;
+import com.usermanagement.dto.BulkUserResultDto;
+import com.usermanagement.dto.CreateRoleDto;
+import com.usermanagement.dto.CreateUserDto;
+import com.usermanagement.service.RoleService;
+import com.usermanagement.service.UserBulkService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Boots the application against a private in-memory H2 database for benchmarks that
+ * need real repositories and transactions.
+ */
+public final class BenchmarkContext {
+
+    public static final int ROLE_COUNT = 20;
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "server.port=0",
+                "logging.level.root=WARN",
+                "logging.level.org.springframework.security=WARN"));
+        properties.addAll(List.of(extraProperties));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(UserManagementServiceApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(properties.toArray(String[]::new))
+                .run();
+
+        List<CreateRoleDto> roles = IntStream.range(0, ROLE_COUNT).mapToObj(i -> {
+            CreateRoleDto role = new CreateRoleDto();
+            role.setName(roleName(i));
+            return role;
+        }).collect(Collectors.toList());
+        context.getBean(RoleService.class).createRoles(roles);
+        return context;
+    }
+
+    public static List<Long> seedUsers(ConfigurableApplicationContext context, int count) {
+        return seedUsers(context, "seed", count);
+    }
+
+    public static List<Long> seedUsers(ConfigurableApplicationContext context, String prefix, int count) {
+        return context.getBean(UserBulkService.class).importUsers(IntStream.range(0, count)
+                        .mapToObj(i -> createUserDto(prefix + i, 3))
+                        .iterator())
+                .getResults().stream()
+                .map(BulkUserResultDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    public static CreateUserDto createUserDto(String username, int roles) {
+        CreateUserDto dto = new CreateUserDto();
+        dto.setUsername(username);
+        dto.setFirstName("First " + username);
+        dto.setLastName("Last " + username);
+        dto.setEmail(username + "@example.com");
+        dto.setCreatedBy("admin");
+        dto.setRoles(IntStream.range(0, roles).mapToObj(BenchmarkContext::roleName).collect(Collectors.toSet()));
+        return dto;
+    }
+
+    public static Set<String> roleNames(int count) {
+        return IntStream.range(0, count).mapToObj(BenchmarkContext::roleName).collect(Collectors.toSet());
+    }
+
+    private static String roleName(int i) {
+        return "ROLE_" + i;
+    }
+}
@@ -0,0 +1,88 @@
+package com.usermanagement.benchmark;
+
+import com.usermanagement.dto.BulkActionResultDto;
+import com.usermanagement.dto.BulkUserSelectionDto;
+import com.usermanagement.service.UserBulkService;
+import com.usermanagement.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Approves or removes a fresh batch of users per iteration, either with one bulk call or with the
+ * single-user service call in a loop, as an onboarding script hitting the per-user endpoints would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BulkUserActionBenchmark {
+
+    private static final String ACTOR = "bulk-admin";
+
+    @Param({"1000"})
+    private int users;
+
+    private ConfigurableApplicationContext context;
+
+    private UserService userService;
+
+    private UserBulkService userBulkService;
+
+    private List<Long> ids;
+
+    private int batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        userService = context.getBean(UserService.class);
+        userBulkService = context.getBean(UserBulkService.class);
+        userService.createUser(BenchmarkContext.createUserDto(ACTOR, 1), "admin");
+    }
+
+    @Setup(Level.Iteration)
+    public void seedBatch() {
+        ids = BenchmarkContext.seedUsers(context, "batch" + batch++ + "-", users);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void approveLooped(Blackhole blackhole) {
+        for (Long id : ids) {
+            blackhole.consume(userService.approveUser(id, ACTOR));
+        }
+    }
+
+    @Benchmark
+    public BulkActionResultDto approveBulk() {
+        return userBulkService.approveUsers(selection(), ACTOR);
+    }
+
+    @Benchmark
+    public void removeLooped() {
+        for (Long id : ids) {
+            userService.removeUser(id, ACTOR);
+        }
+    }
+
+    @Benchmark
+    public BulkActionResultDto removeBulk() {
+        return userBulkService.removeUsers(selection(), ACTOR);
+    }
+
+    private BulkUserSelectionDto selection() {
+        BulkUserSelectionDto selection = new BulkUserSelectionDto();
+        selection.setIds(ids);
+        return selection;
+    }
+}
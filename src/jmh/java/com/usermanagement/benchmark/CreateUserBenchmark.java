@@ -0,0 +1,42 @@
+package com.usermanagement.benchmark;
+
+import com.usermanagement.dto.UserDto;
+import com.usermanagement.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateUserBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int roles;
+
+    private ConfigurableApplicationContext context;
+
+    private UserService userService;
+
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDto createUser() {
+        return userService.createUser(BenchmarkContext.createUserDto("bench" + sequence++, roles), "admin");
+    }
+}
@@ -0,0 +1,44 @@
+package com.usermanagement.benchmark;
+
+import com.usermanagement.dto.UserDto;
+import com.usermanagement.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * createUser with the application's own loggers at INFO and the prod logging pipeline, as deployed.
+ * The other suites silence logging, so this is the one that shows what logging costs on the write path.
+ * Log output goes to stdout; redirect it when running.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateUserLoggingBenchmark {
+
+    private ConfigurableApplicationContext context;
+
+    private UserService userService;
+
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("spring.profiles.active=prod", "logging.level.com.usermanagement=INFO");
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDto createUser() {
+        return userService.createUser(BenchmarkContext.createUserDto("bench" + sequence++, 5), "admin");
+    }
+}
@@ -0,0 +1,58 @@
+package com.usermanagement.benchmark;
+
+import com.usermanagement.dto.UserPageDto;
+import com.usermanagement.dto.UserSearchCriteria;
+import com.usermanagement.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListUsersBenchmark {
+
+    @Param({"1000", "100000"})
+    private int users;
+
+    private ConfigurableApplicationContext context;
+
+    private UserService userService;
+
+    private final UserSearchCriteria criteria = new UserSearchCriteria();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seedUsers(context, users);
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // every keyset page in turn, as GET /getAllUsers streams them
+    @Benchmark
+    public long listAllPages() {
+        long count = 0;
+        Long after = null;
+        UserPageDto page;
+        do {
+            page = userService.listUsers(criteria, after, 500);
+            count += page.getContent().size();
+            after = page.getNextCursor();
+        } while (page.isHasNext());
+        return count;
+    }
+
+    @Benchmark
+    public UserPageDto listFirstPage() {
+        return userService.listUsers(criteria, null, 100);
+    }
+}
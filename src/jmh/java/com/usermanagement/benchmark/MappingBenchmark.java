@@ -0,0 +1,67 @@
+package com.usermanagement.benchmark;
+
+import com.usermanagement.dto.RoleDto;
+import com.usermanagement.dto.UserDto;
+import com.usermanagement.mapper.RoleMapper;
+import com.usermanagement.mapper.RoleMapperImpl;
+import com.usermanagement.mapper.RoleNameSets;
+import com.usermanagement.mapper.UserMapper;
+import com.usermanagement.mapper.UserMapperImpl;
+import com.usermanagement.model.Role;
+import com.usermanagement.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping through the generated mappers. The user's role combination is mapped once in setup,
+ * as it would be by the first user holding it, so the measurement shows the steady state of shared name sets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int roleCount;
+
+    private final UserMapper userMapper = new UserMapperImpl(new RoleNameSets());
+
+    private final RoleMapper roleMapper = new RoleMapperImpl();
+
+    private User user;
+
+    private Role role;
+
+    @Setup
+    public void setUp() {
+        Set<Role> roles = new HashSet<>();
+        for (int i = 0; i < roleCount; i++) {
+            roles.add(new Role((long) i, "ROLE_" + i));
+        }
+        user = new User();
+        user.setId(42L);
+        user.setUsername("jdoe");
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setEmail("john.doe@example.com");
+        user.setRoles(roles);
+        role = new Role(1L, "ROLE_ADMIN");
+        userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public RoleDto roleToDto() {
+        return roleMapper.toDto(role);
+    }
+}
@@ -0,0 +1,135 @@
+package com.usermanagement.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load generator against a running instance: keeps {@code clients} requests to
+ * GET /api/users/{username}/profile in flight for the given duration and prints throughput, latency
+ * percentiles and error counts. Start the service once in platform-thread mode and once with
+ * --spring.profiles.active=virtual (Java 21) and compare.
+ * <p>
+ * The optional fourth argument picks how every request authenticates: {@code basic} sends the admin password
+ * (one BCrypt check per request), {@code bearer} (the default) logs in once through POST /api/auth/token and
+ * sends the token.
+ * Throughput is also reported per core of the server, given as the fifth argument (default: this host's).
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:java -Dexec.mainClass=com.usermanagement.benchmark.ProfileLoadTest \
+ *     -Dexec.args="http://localhost:8080 10000 60"
+ * mvn -Pbenchmarks test-compile exec:java -Dexec.mainClass=com.usermanagement.benchmark.ProfileLoadTest \
+ *     -Dexec.args="http://localhost:8080 64 30 bearer 4"
+ * </pre>
+ */
+public final class ProfileLoadTest {
+
+    private static final String USERNAME = "loadtest-user";
+
+    private static final String BASIC = "Basic " + Base64.getEncoder()
+            .encodeToString("admin:adminpass".getBytes(StandardCharsets.UTF_8));
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private ProfileLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        String auth = args.length > 3 ? args[3] : "bearer";
+        int serverCores = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        seed(client, baseUrl);
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + "/api/users/" + USERNAME + "/profile"))
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        switch (auth) {
+            case "basic" -> builder.header("Authorization", BASIC);
+            case "bearer" -> builder.header("Authorization", "Bearer " + login(client, baseUrl));
+            default -> throw new IllegalArgumentException("auth must be basic or bearer: " + auth);
+        }
+        HttpRequest request = builder.build();
+
+        Semaphore inFlight = new Semaphore(clients);
+        AtomicLong ok = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        ConcurrentLinkedQueue<Long> latenciesMicros = new ConcurrentLinkedQueue<>();
+
+        long start = System.nanoTime();
+        long end = start + Duration.ofSeconds(seconds).toNanos();
+        while (System.nanoTime() < end) {
+            inFlight.acquire();
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                if (failure == null && response.statusCode() == 200) {
+                    ok.incrementAndGet();
+                    latenciesMicros.add((System.nanoTime() - sent) / 1_000);
+                } else {
+                    errors.incrementAndGet();
+                }
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(clients);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        long[] sorted = latenciesMicros.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        System.out.printf("clients=%d auth=%s duration=%.1fs ok=%d errors=%d throughput=%.0f req/s (%.0f req/s per core)%n",
+                clients, auth, elapsed, ok.get(), errors.get(), ok.get() / elapsed, ok.get() / elapsed / serverCores);
+        System.out.printf("latency p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99), percentile(sorted, 1.0));
+    }
+
+    private static void seed(HttpClient client, String baseUrl) throws Exception {
+        post(client, baseUrl + "/api/roles/create", "{\"name\":\"ROLE_LOADTEST\"}");
+        post(client, baseUrl + "/api/users/create", "{\"username\":\"" + USERNAME + "\",\"firstName\":\"Load\","
+                + "\"lastName\":\"Test\",\"email\":\"load@example.com\",\"createdBy\":\"loadtest\",\"roles\":[\"ROLE_LOADTEST\"]}");
+    }
+
+    private static String login(HttpClient client, String baseUrl) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/token"))
+                .header("Authorization", BASIC)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.ofString());
+        Matcher token = TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !token.find()) {
+            throw new IllegalStateException("Login failed with " + response.statusCode() + ": " + response.body());
+        }
+        return token.group(1);
+    }
+
+    // seeding is idempotent enough for repeated runs: a second create simply fails and is ignored
+    private static void post(HttpClient client, String url, String json) throws Exception {
+        client.send(HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", BASIC)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1000.0;
+    }
+}
@@ -0,0 +1,86 @@
+package com.usermanagement.benchmark;
+
+import com.usermanagement.cache.RoleMembershipIndex;
+import com.usermanagement.dto.RoleMatch;
+import com.usermanagement.model.Role;
+import com.usermanagement.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Users holding ADMIN and AUDITOR" answered by the role membership index against the only alternative
+ * before it, walking every loaded user and inspecting its role set. Both sides are in memory, so this
+ * leaves out the cost of loading the users for the scan. Every user holds USER, one in ten ADMIN and one
+ * in four AUDITOR, at random.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoleMembershipBenchmark {
+
+    private static final Role USER = new Role(1L, "ROLE_USER");
+    private static final Role ADMIN = new Role(2L, "ROLE_ADMIN");
+    private static final Role AUDITOR = new Role(3L, "ROLE_AUDITOR");
+
+    private static final List<Long> ADMIN_AND_AUDITOR = List.of(ADMIN.getId(), AUDITOR.getId());
+
+    @Param({"10000", "100000"})
+    private int userCount;
+
+    private RoleMembershipIndex index;
+
+    private List<User> users;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new RoleMembershipIndex();
+        users = new ArrayList<>(userCount);
+        for (long id = 1; id <= userCount; id++) {
+            Set<Role> roles = new HashSet<>(Set.of(USER));
+            if (random.nextInt(10) == 0) {
+                roles.add(ADMIN);
+            }
+            if (random.nextInt(4) == 0) {
+                roles.add(AUDITOR);
+            }
+            User user = new User();
+            user.setId(id);
+            user.setRoles(roles);
+            users.add(user);
+            // outside a transaction the change applies at once
+            index.addAfterCommit(id, roles);
+        }
+    }
+
+    @Benchmark
+    public long countAllFromIndex() {
+        return index.count(ADMIN_AND_AUDITOR, RoleMatch.ALL);
+    }
+
+    @Benchmark
+    public long countAnyFromIndex() {
+        return index.count(ADMIN_AND_AUDITOR, RoleMatch.ANY);
+    }
+
+    @Benchmark
+    public List<Long> firstPageFromIndex() {
+        return index.findIdsAfter(ADMIN_AND_AUDITOR, RoleMatch.ALL, 0L, 51);
+    }
+
+    @Benchmark
+    public long countAllByScan() {
+        return users.stream()
+                .filter(user -> user.getRoles().contains(ADMIN) && user.getRoles().contains(AUDITOR))
+                .count();
+    }
+}
@@ -0,0 +1,48 @@
+package com.usermanagement.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usermanagement.config.JacksonConfig;
+import com.usermanagement.dto.UserDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserJsonBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    private List<UserDto> users;
+
+    @Setup
+    public void setUp() {
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            UserDto dto = new UserDto();
+            dto.setId((long) i);
+            dto.setUsername("user" + i);
+            dto.setFirstName("First" + i);
+            dto.setLastName("Last" + i);
+            dto.setEmail("user" + i + "@example.com");
+            dto.setRoles(BenchmarkContext.roleNames(3));
+            dto.setApproved(i % 2 == 0);
+            users.add(dto);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeUserList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(users);
+    }
+}
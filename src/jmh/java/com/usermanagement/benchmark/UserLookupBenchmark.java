@@ -0,0 +1,82 @@
+package com.usermanagement.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Username lookup at 1M users against the baseline schema (V1) and with the lookup indexes (V2).
+ * Runs the statement {@code findByUsername} issues, over plain JDBC so seeding stays a single insert-select.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserLookupBenchmark {
+
+    private static final String FIND_BY_USERNAME = "select u.id, u.username, u.first_name, u.last_name, u.email,"
+            + " u.created_by, u.updated_by, u.approved, u.created_at, r.id, r.name"
+            + " from users u left join user_roles ur on ur.user_id = u.id left join roles r on r.id = ur.role_id"
+            + " where u.username = ?";
+
+    @Param({"1000000"})
+    private int users;
+
+    @Param({"1", "2"})
+    private String schemaVersion;
+
+    private Connection connection;
+
+    private PreparedStatement findByUsername;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = "jdbc:h2:mem:lookup-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        Flyway.configure()
+                .dataSource(url, "sa", "")
+                .target(schemaVersion)
+                .load()
+                .migrate();
+
+        connection = DriverManager.getConnection(url, "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("insert into roles (name) values ('ROLE_USER')");
+            statement.execute("insert into users (id, username, first_name, last_name, email, created_by, approved, created_at)"
+                    + " select x, 'user' || x, 'First', 'Last', 'user' || x || '@example.com',"
+                    + " case when mod(x, 2) = 0 then 'admin' else 'hr' end, mod(x, 3) = 0, current_timestamp"
+                    + " from system_range(1, " + users + ")");
+            statement.execute("insert into user_roles (user_id, role_id) select id, 1 from users");
+            statement.execute("analyze");
+        }
+        findByUsername = connection.prepareStatement(FIND_BY_USERNAME);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        findByUsername.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public long findByUsername() throws SQLException {
+        findByUsername.setString(1, "user" + ThreadLocalRandom.current().nextInt(1, users + 1));
+        long id = 0;
+        try (ResultSet resultSet = findByUsername.executeQuery()) {
+            while (resultSet.next()) {
+                id = resultSet.getLong(1);
+            }
+        }
+        return id;
+    }
+}
@@ -0,0 +1,86 @@
+package com.usermanagement.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usermanagement.config.JacksonConfig;
+import com.usermanagement.dto.UserDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CPU per response and bytes on the wire for a list of users, per body format and content coding.
+ * {@code json-reflection} is the mapper without Blackbird. The encoded size of one response is printed
+ * at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserWireFormatBenchmark {
+
+    @Param({"json-reflection", "json", "smile"})
+    private String format;
+
+    @Param({"identity", "gzip"})
+    private String coding;
+
+    private ObjectMapper objectMapper;
+
+    private List<UserDto> users;
+
+    @Setup
+    public void setUp() {
+        JacksonConfig jacksonConfig = new JacksonConfig();
+        objectMapper = switch (format) {
+            case "json-reflection" -> Jackson2ObjectMapperBuilder.json().build();
+            case "json" -> jacksonConfig.objectMapper();
+            case "smile" -> smileObjectMapper(jacksonConfig);
+            default -> throw new IllegalArgumentException(format);
+        };
+        users = new ArrayList<>(1000);
+        for (int i = 0; i < 1000; i++) {
+            UserDto dto = new UserDto();
+            dto.setId((long) i);
+            dto.setUsername("user" + i);
+            dto.setFirstName("First" + i);
+            dto.setLastName("Last" + i);
+            dto.setEmail("user" + i + "@example.com");
+            dto.setRoles(BenchmarkContext.roleNames(3));
+            dto.setApproved(i % 2 == 0);
+            dto.setVersion(0L);
+            users.add(dto);
+        }
+    }
+
+    // the Smile mapper the application registers, taken from the converter JacksonConfig appends
+    private static ObjectMapper smileObjectMapper(JacksonConfig jacksonConfig) {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        jacksonConfig.extendMessageConverters(converters);
+        return ((MappingJackson2SmileHttpMessageConverter) converters.get(0)).getObjectMapper();
+    }
+
+    @TearDown(Level.Trial)
+    public void printWireSize() throws IOException {
+        System.out.println(format + ", " + coding + ": " + writeUserList().size() + " bytes per response");
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream writeUserList() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try (OutputStream out = coding.equals("gzip") ? new GZIPOutputStream(bytes, 8192) : bytes) {
+            objectMapper.writeValue(out, users);
+        }
+        return bytes;
+    }
+}
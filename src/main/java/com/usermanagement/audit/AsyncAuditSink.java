@@ -0,0 +1,326 @@
+package com.usermanagement.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Takes audit writes off the request path. Each event is appended to a local write-ahead log as soon as it is
+ * recorded, then queued once the caller's transaction commits; a rollback writes a discard line instead. A
+ * background thread persists queued events in JDBC batches. Events left in the log by a crash are replayed on
+ * startup, so delivery is at-least-once; an event whose transaction was still committing when the process died
+ * is replayed too, and compaction removes duplicates by event id. Events that do not fit in the queue are
+ * dropped and counted.
+ * <p>
+ * While the database is unreachable the flusher backs off and retries the same batch, and the events stay in
+ * the log. An event that fails for any other reason, such as a constraint violation, is moved to a dead-letter
+ * file for an operator and never replayed. The log is kept in segments that are deleted once every event in
+ * them is settled, so it does not grow with sustained load (see {@link AuditWriteAheadSegments}).
+ */
+@Component
+@ConditionalOnProperty(name = "app.audit.mode", havingValue = "async")
+@Slf4j
+public class AsyncAuditSink implements AuditSink {
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${app.audit.wal-path:audit/audit.wal}")
+    private String walPath;
+
+    @Value("${app.audit.wal-segment-events:10000}")
+    private int walSegmentEvents;
+
+    @Value("${app.audit.dead-letter-path:audit/audit.dead}")
+    private String deadLetterPath;
+
+    @Value("${app.audit.retry-backoff-ms:200}")
+    private long retryBackoffMs;
+
+    @Value("${app.audit.retry-max-backoff-ms:5000}")
+    private long retryMaxBackoffMs;
+
+    private BlockingQueue<AuditWriteAheadSegments.Entry> queue;
+
+    private AuditWriteAheadSegments writeAheadLog;
+
+    // a single file, appended to only; guarded by the same lock
+    private AuditWriteAheadLog deadLetters;
+
+    // a lock rather than synchronized so file I/O under it does not pin virtual threads
+    private final ReentrantLock writeAheadLogLock = new ReentrantLock();
+
+    private TransactionTemplate transactionTemplate;
+
+    private Timer flushTimer;
+
+    private Counter droppedCounter;
+
+    private Counter failedCounter;
+
+    private Counter retriedCounter;
+
+    private volatile boolean running;
+
+    private Thread flusher;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        writeAheadLog = new AuditWriteAheadSegments(Path.of(walPath), objectMapper, walSegmentEvents);
+        deadLetters = new AuditWriteAheadLog(Path.of(deadLetterPath), objectMapper);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("audit.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        flushTimer = Timer.builder("audit.flush.latency").register(meterRegistry);
+        droppedCounter = Counter.builder("audit.dropped").register(meterRegistry);
+        failedCounter = Counter.builder("audit.failed").register(meterRegistry);
+        retriedCounter = Counter.builder("audit.retried").register(meterRegistry);
+
+        List<AuditWriteAheadSegments.Entry> recovered = writeAheadLog.recover();
+        if (!recovered.isEmpty()) {
+            log.info("Replaying {} audit events from {}", recovered.size(), walPath);
+        }
+
+        running = true;
+        // the flusher replays first, so startup does not wait for the database
+        flusher = new Thread(() -> runFlusher(recovered), "audit-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException, IOException {
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+        writeAheadLogLock.lock();
+        try {
+            writeAheadLog.close();
+            deadLetters.close();
+        } finally {
+            writeAheadLogLock.unlock();
+        }
+    }
+
+    @Override
+    public void record(AuditEvent event) {
+        recordAll(List.of(event));
+    }
+
+    // appended before the caller commits, so a crash after the commit cannot lose the event
+    @Override
+    public void recordAll(List<AuditEvent> events) {
+        List<AuditWriteAheadSegments.Entry> entries = new ArrayList<>(events.size());
+        writeAheadLogLock.lock();
+        try {
+            for (AuditEvent event : events) {
+                entries.add(new AuditWriteAheadSegments.Entry(event, writeAheadLog.append(event)));
+            }
+        } finally {
+            writeAheadLogLock.unlock();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        entries.forEach(AsyncAuditSink.this::enqueue);
+                    } else {
+                        entries.forEach(AsyncAuditSink.this::discard);
+                    }
+                }
+            });
+        } else {
+            entries.forEach(this::enqueue);
+        }
+    }
+
+    private void enqueue(AuditWriteAheadSegments.Entry entry) {
+        if (!queue.offer(entry)) {
+            droppedCounter.increment();
+            log.warn("Audit queue full, dropping {} event for user {}", entry.event().getAction(), entry.event().getUserId());
+            discard(entry);
+        }
+    }
+
+    private void runFlusher(List<AuditWriteAheadSegments.Entry> recovered) {
+        try {
+            for (int from = 0; from < recovered.size(); from += batchSize) {
+                if (!persistWithRetry(recovered.subList(from, Math.min(from + batchSize, recovered.size())))) {
+                    return;
+                }
+            }
+            List<AuditWriteAheadSegments.Entry> batch = new ArrayList<>(batchSize);
+            while (running || !queue.isEmpty()) {
+                AuditWriteAheadSegments.Entry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                Timer.Sample sample = Timer.start();
+                try {
+                    if (!persistWithRetry(batch)) {
+                        return;
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Audit flusher failed", e);
+                } finally {
+                    sample.stop(flushTimer);
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Persists the batch, backing off while the database is unreachable. Returns false when shutdown
+     * interrupts the retries; the unsettled events are still in the write-ahead log and replay on next start.
+     */
+    private boolean persistWithRetry(List<AuditWriteAheadSegments.Entry> batch) throws InterruptedException {
+        List<AuditWriteAheadSegments.Entry> remaining = new ArrayList<>(batch);
+        long backoff = retryBackoffMs;
+        while (true) {
+            try {
+                persist(remaining);
+                return true;
+            } catch (RuntimeException e) {
+                if (!isTransient(e)) {
+                    throw e;
+                }
+                retriedCounter.increment();
+                log.warn("Audit database unavailable, retrying {} events in {} ms: {}", remaining.size(), backoff, e.toString());
+            }
+            if (!running) {
+                log.warn("Stopping with {} audit events unpersisted; they stay in {} for replay", remaining.size(), walPath);
+                return false;
+            }
+            Thread.sleep(backoff);
+            backoff = Math.min(backoff * 2, retryMaxBackoffMs);
+        }
+    }
+
+    // settles what it can and removes it from the list; throws only for a transient failure
+    private void persist(List<AuditWriteAheadSegments.Entry> remaining) {
+        try {
+            write(remaining);
+            remaining.forEach(this::release);
+            remaining.clear();
+            return;
+        } catch (RuntimeException batchFailure) {
+            if (isTransient(batchFailure)) {
+                throw batchFailure;
+            }
+        }
+        // isolate the offending rows so one bad event does not lose the whole batch
+        for (Iterator<AuditWriteAheadSegments.Entry> entries = remaining.iterator(); entries.hasNext(); ) {
+            AuditWriteAheadSegments.Entry entry = entries.next();
+            try {
+                write(List.of(entry));
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    throw e;
+                }
+                failedCounter.increment();
+                log.error("Failed to persist {} audit event for user {}, moving it to {}",
+                        entry.event().getAction(), entry.event().getUserId(), deadLetterPath, e);
+                deadLetter(entry.event());
+            }
+            release(entry);
+            entries.remove();
+        }
+    }
+
+    private void write(List<AuditWriteAheadSegments.Entry> entries) {
+        List<AuditEvent> events = entries.stream().map(AuditWriteAheadSegments.Entry::event).toList();
+        transactionTemplate.executeWithoutResult(status -> auditLogWriter.write(events));
+    }
+
+    // the database could not be reached, as opposed to rejecting the rows
+    private static boolean isTransient(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void release(AuditWriteAheadSegments.Entry entry) {
+        writeAheadLogLock.lock();
+        try {
+            writeAheadLog.release(entry.segment());
+        } finally {
+            writeAheadLogLock.unlock();
+        }
+    }
+
+    private void discard(AuditWriteAheadSegments.Entry entry) {
+        writeAheadLogLock.lock();
+        try {
+            writeAheadLog.discard(entry);
+        } finally {
+            writeAheadLogLock.unlock();
+        }
+    }
+
+    private void deadLetter(AuditEvent event) {
+        writeAheadLogLock.lock();
+        try {
+            deadLetters.append(event);
+        } finally {
+            writeAheadLogLock.unlock();
+        }
+    }
+}
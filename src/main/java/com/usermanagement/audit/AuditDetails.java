@@ -0,0 +1,90 @@
+package com.usermanagement.audit;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.usermanagement.model.Role;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Builds the compact JSON stored in the audit log's details column. Plain fields are written as {@code "name":value},
+ * changes as {@code "name":[before,after]} and only when the value actually changed, so an update records
+ * just the fields it touched instead of a toString() of the whole user graph.
+ */
+public final class AuditDetails {
+
+    private final StringBuilder json = new StringBuilder(64).append('{');
+
+    private boolean empty = true;
+
+    private AuditDetails() {
+    }
+
+    public static AuditDetails create() {
+        return new AuditDetails();
+    }
+
+    // sorted so that the same role set always serializes (and compares) the same way
+    public static List<String> roleNames(Collection<Role> roles) {
+        return roles.stream().map(Role::getName).sorted().toList();
+    }
+
+    public AuditDetails field(String name, Object value) {
+        name(name);
+        value(value);
+        return this;
+    }
+
+    public AuditDetails change(String name, Object before, Object after) {
+        if (!Objects.equals(before, after)) {
+            name(name);
+            json.append('[');
+            value(before);
+            json.append(',');
+            value(after);
+            json.append(']');
+        }
+        return this;
+    }
+
+    public String toJson() {
+        return json.append('}').toString();
+    }
+
+    private void name(String name) {
+        if (!empty) {
+            json.append(',');
+        }
+        empty = false;
+        string(name);
+        json.append(':');
+    }
+
+    private void value(Object value) {
+        if (value == null) {
+            json.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            json.append(value);
+        } else if (value instanceof Collection<?> values) {
+            json.append('[');
+            boolean first = true;
+            for (Object element : values) {
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                value(element);
+            }
+            json.append(']');
+        } else {
+            string(value.toString());
+        }
+    }
+
+    private void string(String value) {
+        json.append('"');
+        JsonStringEncoder.getInstance().quoteAsString(value, json);
+        json.append('"');
+    }
+}
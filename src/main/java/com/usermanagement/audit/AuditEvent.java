@@ -0,0 +1,30 @@
+package com.usermanagement.audit;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+public class AuditEvent {
+    // survives write-ahead log replay, so compaction can drop events that were persisted twice
+    private String eventId = UUID.randomUUID().toString();
+    private String action;
+    private String performedBy;
+    private String details;
+    private LocalDateTime performedAt;
+    private Long userId;
+    private String username;
+
+    public AuditEvent(String action, String performedBy, String details, LocalDateTime performedAt,
+                      Long userId, String username) {
+        this.action = action;
+        this.performedBy = performedBy;
+        this.details = details;
+        this.performedAt = performedAt;
+        this.userId = userId;
+        this.username = username;
+    }
+}
@@ -0,0 +1,139 @@
+package com.usermanagement.audit;
+
+import com.usermanagement.dto.AuditLogDto;
+import com.usermanagement.dto.AuditSearchCriteria;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Reads audit history newest first, ordered by {@code (performedAt, id)} descending. Only partitions whose
+ * period overlaps the requested range are queried, and each query is served by one of the partition indexes.
+ */
+@Component
+public class AuditLogReader {
+
+    private static final Comparator<AuditLogDto> NEWEST_FIRST = Comparator
+            .comparing(AuditLogDto::getPerformedAt)
+            .thenComparing(AuditLogDto::getId)
+            .reversed();
+
+    private static final RowMapper<AuditLogDto> ROW_MAPPER = (rs, rowNum) -> new AuditLogDto(
+            rs.getLong("id"),
+            rs.getObject("user_id", Long.class),
+            rs.getString("username"),
+            rs.getString("action"),
+            rs.getString("performed_by"),
+            rs.getString("details"),
+            rs.getTimestamp("performed_at").toLocalDateTime());
+
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditPartitions auditPartitions;
+
+    /**
+     * Returns up to {@code limit} entries strictly older than the keyset position {@code (afterPerformedAt, afterId)},
+     * or the newest entries when no position is given.
+     */
+    public List<AuditLogDto> findPage(AuditSearchCriteria criteria, LocalDateTime afterPerformedAt, Long afterId, int limit) {
+        List<AuditPartition> partitions = partitions(criteria, afterPerformedAt);
+        List<AuditLogDto> rows = new ArrayList<>();
+        for (int i = 0; i < partitions.size(); i++) {
+            Query query = query(partitions.get(i).getTableName(), criteria, afterPerformedAt, afterId);
+            query.sql.append(" fetch first ? rows only");
+            query.args.add(limit);
+            rows.addAll(jdbcTemplate.query(query.sql.toString(), ROW_MAPPER, query.args.toArray()));
+            rows.sort(NEWEST_FIRST);
+
+            // older partitions hold only rows before their period end and cannot displace a full page
+            boolean pageFull = rows.size() >= limit;
+            if (pageFull && (i + 1 == partitions.size()
+                    || !partitions.get(i + 1).getPeriodEnd().isAfter(rows.get(limit - 1).getPerformedAt()))) {
+                break;
+            }
+        }
+        return rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
+    }
+
+    /**
+     * Streams every matching entry partition by partition, newest partition first, without holding the
+     * result in memory.
+     */
+    public void stream(AuditSearchCriteria criteria, Consumer<AuditLogDto> consumer) {
+        for (AuditPartition partition : partitions(criteria, null)) {
+            Query query = query(partition.getTableName(), criteria, null, null);
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(query.sql.toString());
+                statement.setFetchSize(EXPORT_FETCH_SIZE);
+                for (int i = 0; i < query.args.size(); i++) {
+                    statement.setObject(i + 1, query.args.get(i));
+                }
+                return statement;
+            }, (RowCallbackHandler) rs -> consumer.accept(ROW_MAPPER.mapRow(rs, rs.getRow())));
+        }
+    }
+
+    private List<AuditPartition> partitions(AuditSearchCriteria criteria, LocalDateTime before) {
+        return auditPartitions.list().stream()
+                .filter(partition -> criteria.getFrom() == null || partition.getPeriodEnd().isAfter(criteria.getFrom()))
+                .filter(partition -> criteria.getTo() == null || partition.getPeriodStart().isBefore(criteria.getTo()))
+                .filter(partition -> before == null || !partition.getPeriodStart().isAfter(before))
+                .sorted(Comparator.comparing(AuditPartition::getPeriodEnd).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private static Query query(String table, AuditSearchCriteria criteria, LocalDateTime afterPerformedAt, Long afterId) {
+        Query query = new Query("select id, user_id, username, action, performed_by, details, performed_at from "
+                + table + " where 1 = 1");
+        if (criteria.getUserId() != null) {
+            query.and(" and user_id = ?", criteria.getUserId());
+        }
+        if (criteria.getAction() != null) {
+            query.and(" and action = ?", criteria.getAction());
+        }
+        if (criteria.getPerformedBy() != null) {
+            query.and(" and performed_by = ?", criteria.getPerformedBy());
+        }
+        if (criteria.getFrom() != null) {
+            query.and(" and performed_at >= ?", Timestamp.valueOf(criteria.getFrom()));
+        }
+        if (criteria.getTo() != null) {
+            query.and(" and performed_at < ?", Timestamp.valueOf(criteria.getTo()));
+        }
+        if (afterPerformedAt != null) {
+            Timestamp after = Timestamp.valueOf(afterPerformedAt);
+            query.and(" and (performed_at < ? or (performed_at = ? and id < ?))", after, after, afterId);
+        }
+        query.sql.append(" order by performed_at desc, id desc");
+        return query;
+    }
+
+    private static final class Query {
+        private final StringBuilder sql;
+        private final List<Object> args = new ArrayList<>();
+
+        private Query(String select) {
+            this.sql = new StringBuilder(select);
+        }
+
+        private void and(String condition, Object... values) {
+            sql.append(condition);
+            args.addAll(List.of(values));
+        }
+    }
+}
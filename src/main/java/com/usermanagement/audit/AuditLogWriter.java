@@ -0,0 +1,60 @@
+package com.usermanagement.audit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+public class AuditLogWriter {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditPartitions auditPartitions;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String nextId;
+
+    // the id expression comes from the dialect, so the hand-written insert is not tied to one database
+    @PostConstruct
+    void init() {
+        nextId = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                .getSequenceSupport().getSelectSequenceNextValString("audit_log_seq");
+    }
+
+    // append-only: each event is one batched insert into its month's partition, joined to the caller's transaction
+    public void write(List<AuditEvent> events) {
+        Map<String, List<AuditEvent>> byPartition = events.stream()
+                .collect(Collectors.groupingBy(event -> auditPartitions.tableFor(event.getPerformedAt()),
+                        LinkedHashMap::new, Collectors.toList()));
+        byPartition.forEach((table, batch) -> jdbcTemplate.batchUpdate("insert into " + table
+                        + " (id, event_id, user_id, username, action, performed_by, details, performed_at)"
+                        + " values (" + nextId + ", ?, ?, ?, ?, ?, ?, ?)",
+                batch, batch.size(), (ps, event) -> {
+                    ps.setString(1, event.getEventId());
+                    if (event.getUserId() != null) {
+                        ps.setLong(2, event.getUserId());
+                    } else {
+                        ps.setNull(2, Types.BIGINT);
+                    }
+                    ps.setString(3, event.getUsername());
+                    ps.setString(4, event.getAction());
+                    ps.setString(5, event.getPerformedBy());
+                    ps.setString(6, event.getDetails());
+                    ps.setTimestamp(7, Timestamp.valueOf(event.getPerformedAt()));
+                }));
+    }
+}
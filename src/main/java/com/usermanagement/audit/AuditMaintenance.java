@@ -0,0 +1,63 @@
+package com.usermanagement.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Nightly housekeeping of audit partitions. Next month's partition is created ahead of the rollover. Partitions
+ * whose period ended more than
+ * {@code app.audit.retention-months} ago are dropped; closed partitions are compacted once by removing
+ * events that the at-least-once async sink persisted more than once.
+ */
+@Component
+@Slf4j
+public class AuditMaintenance {
+
+    @Autowired
+    private AuditPartitions auditPartitions;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // 0 keeps partitions forever
+    @Value("${app.audit.retention-months:24}")
+    private int retentionMonths;
+
+    @Scheduled(cron = "${app.audit.maintenance-cron:0 30 3 * * *}")
+    public void run() {
+        LocalDateTime now = LocalDateTime.now();
+        auditPartitions.prepare(now);
+        applyRetention(now);
+        compact(now);
+    }
+
+    void applyRetention(LocalDateTime now) {
+        if (retentionMonths <= 0) {
+            return;
+        }
+        LocalDateTime cutoff = YearMonth.from(now).minusMonths(retentionMonths).atDay(1).atStartOfDay();
+        auditPartitions.list().stream()
+                .filter(partition -> !partition.getPeriodEnd().isAfter(cutoff))
+                .forEach(auditPartitions::drop);
+    }
+
+    void compact(LocalDateTime now) {
+        for (AuditPartition partition : auditPartitions.list()) {
+            if (partition.isCompacted() || partition.getPeriodEnd().isAfter(now)) {
+                continue;
+            }
+            String table = partition.getTableName();
+            int removed = jdbcTemplate.update("delete from " + table + " where event_id is not null and id not in"
+                    + " (select min(id) from " + table + " where event_id is not null group by event_id)");
+            auditPartitions.markCompacted(partition);
+            log.info("Compacted audit partition {}, removed {} duplicate events", table, removed);
+        }
+    }
+}
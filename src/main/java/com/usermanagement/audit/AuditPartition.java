@@ -0,0 +1,15 @@
+package com.usermanagement.audit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class AuditPartition {
+    private String tableName;
+    private LocalDateTime periodStart;
+    private LocalDateTime periodEnd;
+    private boolean compacted;
+}
@@ -0,0 +1,148 @@
+package com.usermanagement.audit;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Catalog of the audit log's month partitions. Each calendar month of {@code performedAt} is stored in its
+ * own {@code audit_log_yyyymm} table, registered in {@code audit_partitions}, so appends only ever touch the
+ * current month's table and expired months are dropped whole. The current and next month are created ahead,
+ * at startup and by the nightly maintenance, so a month rollover under load is a map lookup; only a write for
+ * a month nobody prepared, such as a replayed old event, creates its table on the way.
+ */
+@Component
+@Slf4j
+public class AuditPartitions {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<YearMonth, String> tables = new ConcurrentHashMap<>();
+
+    // DDL commits on its own so a rolled-back audit write never leaves a table without its catalog row
+    private TransactionTemplate ddlTransaction;
+
+    @PostConstruct
+    void init() {
+        ddlTransaction = new TransactionTemplate(transactionManager);
+        ddlTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // never holds a lock around the DDL: that needs a second pooled connection while the caller holds one
+    public String tableFor(LocalDateTime performedAt) {
+        YearMonth month = YearMonth.from(performedAt);
+        String table = tables.get(month);
+        return table != null ? table : ensure(month);
+    }
+
+    public void prepare(LocalDateTime now) {
+        YearMonth month = YearMonth.from(now);
+        ensure(month);
+        ensure(month.plusMonths(1));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareAtStartup() {
+        prepare(LocalDateTime.now());
+    }
+
+    // idempotent, so callers racing on the same month both succeed
+    String ensure(YearMonth month) {
+        String table;
+        try {
+            table = create(month);
+        } catch (DuplicateKeyException e) {
+            // registered by a concurrent caller between the existence check and the insert
+            table = tableName(month);
+        }
+        tables.put(month, table);
+        return table;
+    }
+
+    public List<AuditPartition> list() {
+        return jdbcTemplate.query(
+                "select table_name, period_start, period_end, compacted from audit_partitions order by period_start",
+                (rs, rowNum) -> new AuditPartition(rs.getString(1), rs.getTimestamp(2).toLocalDateTime(),
+                        rs.getTimestamp(3).toLocalDateTime(), rs.getBoolean(4)));
+    }
+
+    public void drop(AuditPartition partition) {
+        ddlTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from audit_partitions where table_name = ?", partition.getTableName());
+            jdbcTemplate.execute("drop table if exists " + partition.getTableName());
+        });
+        tables.values().remove(partition.getTableName());
+        log.info("Dropped audit partition {}", partition.getTableName());
+    }
+
+    void markCompacted(AuditPartition partition) {
+        jdbcTemplate.update("update audit_partitions set compacted = true where table_name = ?", partition.getTableName());
+    }
+
+    // partitions created before an index was introduced pick it up on the next start
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        list().forEach(partition -> ddlTransaction.executeWithoutResult(status -> createIndexes(partition.getTableName())));
+    }
+
+    // one index per filter of AuditLogReader, each ending in performed_at so keyset pages read in index order
+    private void createIndexes(String table) {
+        jdbcTemplate.execute("create index if not exists idx_" + table + "_user_performed_at"
+                + " on " + table + " (user_id, performed_at)");
+        jdbcTemplate.execute("create index if not exists idx_" + table + "_performed_at_id"
+                + " on " + table + " (performed_at, id)");
+        jdbcTemplate.execute("create index if not exists idx_" + table + "_action_performed_at"
+                + " on " + table + " (action, performed_at)");
+        jdbcTemplate.execute("create index if not exists idx_" + table + "_performed_by_performed_at"
+                + " on " + table + " (performed_by, performed_at)");
+    }
+
+    private static String tableName(YearMonth month) {
+        return "audit_log_" + month.format(SUFFIX);
+    }
+
+    private String create(YearMonth month) {
+        String table = tableName(month);
+        ddlTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.execute("create table if not exists " + table + " ("
+                    + " id bigint not null,"
+                    + " event_id varchar(36) not null,"
+                    + " user_id bigint,"
+                    + " username varchar(255),"
+                    + " action varchar(255),"
+                    + " performed_by varchar(255),"
+                    + " details varchar(4000),"
+                    + " performed_at timestamp(6) not null,"
+                    + " primary key (id))");
+            createIndexes(table);
+            jdbcTemplate.update("insert into audit_partitions (table_name, period_start, period_end, compacted)"
+                            + " select ?, ?, ?, false where not exists"
+                            + " (select 1 from audit_partitions where table_name = ?)",
+                    table, Timestamp.valueOf(month.atDay(1).atStartOfDay()),
+                    Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()), table);
+        });
+        return table;
+    }
+}
@@ -0,0 +1,17 @@
+package com.usermanagement.audit;
+
+import java.util.List;
+
+/**
+ * Destination for audit events. The implementation is chosen with app.audit.mode
+ * ({@code sync} writes in the caller's transaction, {@code async} queues and batches the writes).
+ */
+public interface AuditSink {
+
+    void record(AuditEvent event);
+
+    // bulk operations hand over a whole chunk so sinks can write it as one batch
+    default void recordAll(List<AuditEvent> events) {
+        events.forEach(this::record);
+    }
+}
@@ -0,0 +1,117 @@
+package com.usermanagement.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Append-only file of accepted but not yet persisted audit events, one JSON document per line. An event
+ * whose transaction rolled back is cancelled by a later discard line carrying its id, so it is not read back.
+ * Callers are responsible for synchronizing access.
+ */
+class AuditWriteAheadLog {
+
+    private static final String DISCARDED = "discardedEventId";
+
+    private final Path path;
+
+    private final ObjectMapper objectMapper;
+
+    private BufferedWriter writer;
+
+    AuditWriteAheadLog(Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+    }
+
+    List<AuditEvent> readAll() {
+        List<AuditEvent> events = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return events;
+        }
+        Set<String> discarded = new HashSet<>();
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node = objectMapper.readTree(line);
+                if (node.has(DISCARDED)) {
+                    discarded.add(node.get(DISCARDED).asText());
+                } else {
+                    events.add(objectMapper.treeToValue(node, AuditEvent.class));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read audit write-ahead log " + path, e);
+        }
+        events.removeIf(event -> discarded.contains(event.getEventId()));
+        return events;
+    }
+
+    void append(AuditEvent event) {
+        write(event);
+    }
+
+    void appendDiscard(AuditEvent event) {
+        write(Map.of(DISCARDED, event.getEventId()));
+    }
+
+    void truncate() {
+        try {
+            close();
+            open(StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to truncate audit write-ahead log " + path, e);
+        }
+    }
+
+    void delete() {
+        try {
+            close();
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete audit write-ahead log " + path, e);
+        }
+    }
+
+    void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private void write(Object line) {
+        try {
+            if (writer == null) {
+                open(StandardOpenOption.APPEND);
+            }
+            writer.write(objectMapper.writeValueAsString(line));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to audit write-ahead log " + path, e);
+        }
+    }
+
+    private void open(StandardOpenOption mode) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode);
+    }
+}
@@ -0,0 +1,153 @@
+package com.usermanagement.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * The write-ahead log as numbered files next to the configured path ({@code audit.wal.1}, {@code audit.wal.2}, ...).
+ * Appends go to the newest segment, which rolls over after {@code segmentEvents} events. Each segment counts the
+ * events it holds that are not yet persisted, dead-lettered or discarded. An older segment is deleted when that
+ * count reaches zero, and the newest one is truncated, so the log stays bounded under sustained load instead of
+ * waiting for the queue to drain. Callers are responsible for synchronizing access.
+ */
+class AuditWriteAheadSegments {
+
+    static final class Segment {
+
+        private final long number;
+
+        private final AuditWriteAheadLog file;
+
+        private int outstanding;
+
+        private Segment(long number, AuditWriteAheadLog file) {
+            this.number = number;
+            this.file = file;
+        }
+    }
+
+    record Entry(AuditEvent event, Segment segment) {
+    }
+
+    private final Path base;
+
+    private final ObjectMapper objectMapper;
+
+    private final int segmentEvents;
+
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+
+    private Segment active;
+
+    private int appendedToActive;
+
+    AuditWriteAheadSegments(Path base, ObjectMapper objectMapper, int segmentEvents) {
+        this.base = base;
+        this.objectMapper = objectMapper;
+        this.segmentEvents = segmentEvents;
+    }
+
+    /**
+     * Reads the events left by the previous run, oldest segment first. Their segments stay until every one
+     * of them is released; new events go to a fresh segment.
+     */
+    List<Entry> recover() {
+        List<Entry> pending = new ArrayList<>();
+        for (Segment segment : existingSegments()) {
+            List<AuditEvent> events = segment.file.readAll();
+            if (events.isEmpty()) {
+                segment.file.delete();
+                continue;
+            }
+            segment.outstanding = events.size();
+            segments.put(segment.number, segment);
+            events.forEach(event -> pending.add(new Entry(event, segment)));
+        }
+        return pending;
+    }
+
+    Segment append(AuditEvent event) {
+        if (active == null || appendedToActive >= segmentEvents) {
+            roll();
+        }
+        active.file.append(event);
+        active.outstanding++;
+        appendedToActive++;
+        return active;
+    }
+
+    // the event's transaction rolled back or it was dropped: it must not come back on replay
+    void discard(Entry entry) {
+        entry.segment().file.appendDiscard(entry.event());
+        release(entry.segment());
+    }
+
+    // the event was persisted or dead-lettered
+    void release(Segment segment) {
+        if (--segment.outstanding > 0) {
+            return;
+        }
+        if (segment == active) {
+            segment.file.truncate();
+            appendedToActive = 0;
+        } else {
+            segments.remove(segment.number);
+            segment.file.delete();
+        }
+    }
+
+    void close() throws IOException {
+        for (Segment segment : segments.values()) {
+            segment.file.close();
+        }
+    }
+
+    private void roll() {
+        long number = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+        Segment previous = active;
+        active = new Segment(number, new AuditWriteAheadLog(Path.of(base + "." + number), objectMapper));
+        appendedToActive = 0;
+        segments.put(number, active);
+        if (previous != null && previous.outstanding == 0) {
+            segments.remove(previous.number);
+            previous.file.delete();
+        } else if (previous != null) {
+            try {
+                previous.file.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to close audit write-ahead log segment " + previous.number, e);
+            }
+        }
+    }
+
+    // the plain configured path is the single file written before segments, read as segment 0
+    private List<Segment> existingSegments() {
+        Path directory = base.toAbsolutePath().getParent();
+        String prefix = base.getFileName() + ".";
+        List<Segment> found = new ArrayList<>();
+        if (Files.exists(base)) {
+            found.add(new Segment(0, new AuditWriteAheadLog(base, objectMapper)));
+        }
+        if (!Files.isDirectory(directory)) {
+            return found;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.substring(prefix.length()).matches("\\d+"))
+                    .forEach(name -> found.add(new Segment(Long.parseLong(name.substring(prefix.length())),
+                            new AuditWriteAheadLog(directory.resolve(name), objectMapper))));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list audit write-ahead log segments in " + directory, e);
+        }
+        found.sort((a, b) -> Long.compare(a.number, b.number));
+        return found;
+    }
+}
@@ -0,0 +1,27 @@
+package com.usermanagement.audit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "app.audit.mode", havingValue = "sync", matchIfMissing = true)
+public class SyncAuditSink implements AuditSink {
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Override
+    public void record(AuditEvent event) {
+        auditLogWriter.write(List.of(event));
+    }
+
+    @Override
+    public void recordAll(List<AuditEvent> events) {
+        if (!events.isEmpty()) {
+            auditLogWriter.write(events);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.usermanagement.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.usermanagement.model.Role;
+import com.usermanagement.repository.RoleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Warm, bounded cache of roles by name and by id. Roles are reference data that almost never
+ * change, so the cache is loaded at startup and refreshed by RoleService whenever roles are created.
+ */
+@Component
+@Slf4j
+public class RoleCache {
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.cache.roles.max-size:1000}")
+    private long maxSize;
+
+    private Cache<String, Role> rolesByName;
+
+    private Cache<Long, Role> rolesById;
+
+    @PostConstruct
+    void init() {
+        rolesByName = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+        rolesById = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, rolesByName, "roles.byName");
+        CaffeineCacheMetrics.monitor(meterRegistry, rolesById, "roles.byId");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+        List<Role> roles = roleRepository.findAll();
+        rolesByName.invalidateAll();
+        rolesById.invalidateAll();
+        roles.forEach(this::put);
+        log.info("Role cache loaded with {} roles", roles.size());
+    }
+
+    public Role findByName(String name) {
+        Role role = rolesByName.get(name, roleRepository::findByName);
+        if (role != null) {
+            rolesById.put(role.getId(), role);
+        }
+        return role;
+    }
+
+    /**
+     * Resolves all names at once; names missing from the cache are loaded with a single IN query.
+     * Names that do not exist are simply absent from the returned map.
+     */
+    public Map<String, Role> findAllByName(Collection<String> names) {
+        Map<String, Role> roles = rolesByName.getAll(names, missing -> roleRepository.findByNameIn(Set.copyOf(missing)).stream()
+                .collect(Collectors.toMap(Role::getName, Function.identity())));
+        roles.values().forEach(role -> rolesById.put(role.getId(), role));
+        return roles;
+    }
+
+    public Role findById(Long id) {
+        Role role = rolesById.get(id, key -> roleRepository.findById(key).orElse(null));
+        if (role != null) {
+            rolesByName.put(role.getName(), role);
+        }
+        return role;
+    }
+
+    public void put(Role role) {
+        rolesByName.put(role.getName(), role);
+        rolesById.put(role.getId(), role);
+    }
+}
@@ -0,0 +1,179 @@
+package com.usermanagement.cache;
+
+import com.usermanagement.dto.RoleMatch;
+import com.usermanagement.model.Role;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.PeekableLongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory copy of {@code user_roles} as one compressed bitmap of user ids per role id, so "which users
+ * hold these roles" is answered by bitmap intersections and unions instead of a scan of the users table.
+ * Loaded at startup and kept current by the user write paths, which apply their change once it has committed.
+ * <p>
+ * Changes are applied in commit-hook order rather than commit order, so an assignment racing a removal of the
+ * same user can leave a removed id behind until the next restart; callers re-read users by id and drop the
+ * missing ones, and counts may include them. Per process, like {@link UserSetVersion}.
+ */
+@Component
+@Slf4j
+public class RoleMembershipIndex {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Roaring64Bitmap> usersByRole = new HashMap<>();
+
+    // holds the write lock while reading, so changes committed meanwhile are applied after the load, not lost
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            usersByRole.clear();
+            jdbcTemplate.query("select role_id, user_id from user_roles", (RowCallbackHandler) rs ->
+                    usersByRole.computeIfAbsent(rs.getLong(1), roleId -> new Roaring64Bitmap()).addLong(rs.getLong(2)));
+            long memberships = 0;
+            for (Roaring64Bitmap users : usersByRole.values()) {
+                users.runOptimize();
+                memberships += users.getLongCardinality();
+            }
+            log.info("Role membership index loaded with {} memberships across {} roles", memberships, usersByRole.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the user to each role once the current transaction commits, or immediately outside one.
+     */
+    public void addAfterCommit(Long userId, Collection<Role> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return;
+        }
+        List<Long> roleIds = roles.stream().map(Role::getId).toList();
+        afterCommit(() -> {
+            for (Long roleId : roleIds) {
+                usersByRole.computeIfAbsent(roleId, id -> new Roaring64Bitmap()).addLong(userId);
+            }
+        });
+    }
+
+    /**
+     * Removes the users from every role once the current transaction commits, or immediately outside one.
+     */
+    public void removeAfterCommit(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(userIds);
+        afterCommit(() -> {
+            for (Roaring64Bitmap users : usersByRole.values()) {
+                ids.forEach(users::removeLong);
+            }
+        });
+    }
+
+    public long count(Collection<Long> roleIds, RoleMatch match) {
+        lock.readLock().lock();
+        try {
+            if (match == RoleMatch.ALL && roleIds.size() == 2) {
+                // the common pair needs no intermediate bitmap
+                Iterator<Long> pair = roleIds.iterator();
+                Roaring64Bitmap first = usersByRole.get(pair.next());
+                Roaring64Bitmap second = usersByRole.get(pair.next());
+                return first == null || second == null ? 0 : Roaring64Bitmap.andCardinality(first, second);
+            }
+            return select(roleIds, match).getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} ids greater than {@code afterId}, in ascending order.
+     */
+    public List<Long> findIdsAfter(Collection<Long> roleIds, RoleMatch match, long afterId, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            PeekableLongIterator users = select(roleIds, match).getLongIteratorFrom(afterId + 1);
+            while (users.hasNext() && ids.size() < limit) {
+                ids.add(users.next());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    // caller holds the read lock; a single role returns the indexed bitmap itself, which must not be modified
+    private Roaring64Bitmap select(Collection<Long> roleIds, RoleMatch match) {
+        if (roleIds.size() == 1) {
+            Roaring64Bitmap users = usersByRole.get(roleIds.iterator().next());
+            return users == null ? new Roaring64Bitmap() : users;
+        }
+        Roaring64Bitmap result = null;
+        for (Long roleId : roleIds) {
+            Roaring64Bitmap users = usersByRole.get(roleId);
+            if (match == RoleMatch.ALL) {
+                if (users == null) {
+                    return new Roaring64Bitmap();
+                }
+                if (result == null) {
+                    result = users.clone();
+                } else {
+                    result.and(users);
+                }
+            } else if (users != null) {
+                if (result == null) {
+                    result = users.clone();
+                } else {
+                    result.or(users);
+                }
+            }
+        }
+        return result == null ? new Roaring64Bitmap() : result;
+    }
+
+    private void afterCommit(Runnable change) {
+        Runnable locked = () -> {
+            lock.writeLock().lock();
+            try {
+                change.run();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        locked.run();
+                    }
+                }
+            });
+        } else {
+            locked.run();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.usermanagement.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.usermanagement.dto.UserDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of ready-to-serialize profiles keyed by username, bounded by size and TTL.
+ * Concurrent misses for one username share a single load. Write paths invalidate the entry immediately
+ * and again after their transaction commits, so a reader racing the commit cannot re-cache stale data.
+ */
+@Component
+public class UserProfileCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.cache.profile.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.cache.profile.ttl:60s}")
+    private Duration ttl;
+
+    private Cache<String, UserDto> profiles;
+
+    @PostConstruct
+    void init() {
+        profiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, profiles, "users.profile");
+    }
+
+    public UserDto get(String username, Function<String, UserDto> loader) {
+        return profiles.get(username, loader);
+    }
+
+    public void invalidate(String username) {
+        profiles.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    profiles.invalidate(username);
+                }
+            });
+        }
+    }
+}
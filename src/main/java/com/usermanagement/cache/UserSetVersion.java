@@ -0,0 +1,40 @@
+package com.usermanagement.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the user set as a whole, used as the ETag of the list endpoints so a poller holding the
+ * current tag gets a 304 without a query. Every user write advances it once its transaction completes;
+ * readers must take the version before they query, so a response can carry an older tag than its data
+ * (a spurious 200 later) but never a newer one (a stale 304). The value is prefixed with the startup
+ * time, so tags issued before a restart never match. It is per process: correct only while one
+ * instance serves the database, as with the in-memory H2 setup.
+ */
+@Component
+public class UserSetVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong version = new AtomicLong();
+
+    public String current() {
+        return epoch + "-" + version.get();
+    }
+
+    public void advance() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.usermanagement.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class JacksonConfig implements WebMvcConfigurer {
+
+    // JacksonAutoConfiguration is excluded, so expose the same mapper the default MVC converters build,
+    // plus Blackbird so property access goes through generated lambdas rather than reflection
+    @Bean
+    public ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+    }
+
+    // appended after the JSON converter, so only callers asking for application/x-jackson-smile get Smile
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new MappingJackson2SmileHttpMessageConverter(smileObjectMapper()));
+    }
+
+    // not a bean: a second ObjectMapper in the context would make every by-type injection ambiguous
+    private static ObjectMapper smileObjectMapper() {
+        return Jackson2ObjectMapperBuilder.smile().modulesToInstall(new BlackbirdModule()).build();
+    }
+}
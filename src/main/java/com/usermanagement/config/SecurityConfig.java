@@ -1,25 +1,30 @@
 package com.usermanagement.config;
 
+import com.usermanagement.security.BearerTokenFilter;
+import com.usermanagement.security.TokenStore;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenStore tokenStore,
+                                                   UserDetailsService userDetailsService) throws Exception {
         http.csrf().disable()
                 .authorizeHttpRequests(authorize -> authorize
+                        // every API call needs a principal; the @PreAuthorize role checks on the controllers decide the rest
+                        .requestMatchers("/api/**").authenticated()
                         //.requestMatchers("/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**", "/api-docs/**").permitAll()
                         //.requestMatchers("/api/users/**").hasRole("ADMIN")
                         //.requestMatchers("/api/users/**").hasAnyRole("USER", "ADMIN")
@@ -33,7 +38,9 @@ public class SecurityConfig {
 
                 .httpBasic(httpBasic -> httpBasic
                         .realmName("user-management-service")
-                );
+                )
+                // bearer tokens from POST /api/auth/token: one BCrypt check at login instead of one per request
+                .addFilterBefore(new BearerTokenFilter(tokenStore, userDetailsService), BasicAuthenticationFilter.class);
 
 
         return http.build();
@@ -44,22 +51,5 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
-    @Bean
-    public UserDetailsService userDetailsService(PasswordEncoder passwordEncoder) {
-        UserDetails admin = User.builder()
-                .username("admin")
-                .password(passwordEncoder.encode("adminpass"))
-                .roles("ADMIN")
-                .build();
-
-        UserDetails user = User.builder()
-                .username("user")
-                .password(passwordEncoder.encode("userpass"))
-                .roles("USER")
-                .build();
-
-        return new InMemoryUserDetailsManager(admin, user);
-    }
-
 }
 
@@ -0,0 +1,42 @@
+package com.usermanagement.controller;
+
+import com.usermanagement.dto.TokenDto;
+import com.usermanagement.exception.AccessDeniedException;
+import com.usermanagement.exception.ValidationException;
+import com.usermanagement.security.TokenStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/auth")
+@Slf4j
+public class AuthController {
+
+    @Autowired
+    private TokenStore tokenStore;
+
+    // requires a password login (Basic); a bearer token cannot mint its own successor
+    @PostMapping("/token")
+    public ResponseEntity<TokenDto> issueToken(Authentication authentication) {
+        if (authentication instanceof PreAuthenticatedAuthenticationToken) {
+            throw new AccessDeniedException("Tokens are issued for a password login only");
+        }
+        String token = tokenStore.issue(authentication);
+        log.debug("Issued a bearer token for {}", authentication.getName());
+        return new ResponseEntity<>(new TokenDto(token, "Bearer", tokenStore.getTtl().toSeconds()), HttpStatus.OK);
+    }
+
+    @DeleteMapping("/token")
+    public ResponseEntity<Void> revokeToken(Authentication authentication) {
+        if (!(authentication instanceof PreAuthenticatedAuthenticationToken)) {
+            throw new ValidationException("Only a bearer token can be revoked");
+        }
+        tokenStore.revoke((String) authentication.getCredentials());
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
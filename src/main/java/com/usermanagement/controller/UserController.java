@@ -1,17 +1,41 @@
 package com.usermanagement.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.usermanagement.dto.BulkActionResultDto;
+import com.usermanagement.dto.BulkImportResultDto;
+import com.usermanagement.dto.BulkUserSelectionDto;
 import com.usermanagement.dto.CreateUserDto;
+import com.usermanagement.dto.RoleMatch;
+import com.usermanagement.dto.UserCountDto;
 import com.usermanagement.dto.UserDto;
+import com.usermanagement.dto.UserPageDto;
+import com.usermanagement.dto.UserSearchCriteria;
+import com.usermanagement.exception.PreconditionFailedException;
+import com.usermanagement.service.UserBulkService;
 import com.usermanagement.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.AccessDeniedException;
-import java.util.List;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 @RestController
@@ -19,9 +43,17 @@ import java.util.Set;
 @Slf4j
 public class UserController {
 
+    private static final int ALL_USERS_PAGE_SIZE = 500;
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserBulkService userBulkService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/create")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<UserDto> createUser(@RequestBody CreateUserDto createUserDto) {
@@ -30,27 +62,58 @@ public class UserController {
         return new ResponseEntity<>(userDto, HttpStatus.CREATED);
     }
 
+    // accepts either a JSON array or newline-delimited JSON; rows are read lazily as the import proceeds
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<BulkImportResultDto> importUsers(InputStream body) throws IOException {
+        log.info("inside importUsers");
+        try (MappingIterator<CreateUserDto> users = objectMapper.readerFor(CreateUserDto.class).readValues(body)) {
+            BulkImportResultDto result = userBulkService.importUsers(users);
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        }
+    }
+
+    // a filter can select every user, so bulk approval and removal are for admins only
+    @PostMapping("/bulk/approve/ApprovedBy/{ApprovedBy}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkActionResultDto> approveUsers(@PathVariable("ApprovedBy") String approvedBy,
+                                                            @RequestBody BulkUserSelectionDto selection) {
+        BulkActionResultDto result = userBulkService.approveUsers(selection, approvedBy);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    @PostMapping("/bulk/removeBy/{Removed-By}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkActionResultDto> removeUsers(@PathVariable("Removed-By") String removedBy,
+                                                           @RequestBody BulkUserSelectionDto selection) {
+        BulkActionResultDto result = userBulkService.removeUsers(selection, removedBy);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
     @PostMapping("/{id}/assign-roles")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<UserDto> assignRoles(@PathVariable Long id, @RequestBody Set<String> roles) {
-        UserDto userDto = userService.assignRoles(id, roles);
+    public ResponseEntity<UserDto> assignRoles(@PathVariable Long id, @RequestBody Set<String> roles,
+                                               Authentication authentication) {
+        UserDto userDto = userService.assignRoles(id, roles, authentication.getName());
         return new ResponseEntity<>(userDto, HttpStatus.OK);
     }
 
 
     @PostMapping("/{id}/approve/ApprovedBy/{ApprovedBy}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<UserDto> approveUser(@PathVariable Long id, @PathVariable("ApprovedBy") String approvedBy) {
-        UserDto userDto = userService.approveUser(id, approvedBy);
-        return new ResponseEntity<>(userDto, HttpStatus.OK);
+    public ResponseEntity<UserDto> approveUser(@PathVariable Long id, @PathVariable("ApprovedBy") String approvedBy,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        UserDto userDto = userService.approveUser(id, approvedBy, expectedVersion(id, ifMatch));
+        return withETag(userDto);
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<UserDto> updateUser(@PathVariable Long id, @RequestBody CreateUserDto updateUserDto) throws AccessDeniedException {
-        UserDto userDto = userService.updateUser(id, updateUserDto, updateUserDto.getUpdatedBy());
+    public ResponseEntity<UserDto> updateUser(@PathVariable Long id, @RequestBody CreateUserDto updateUserDto,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws AccessDeniedException {
+        UserDto userDto = userService.updateUser(id, updateUserDto, updateUserDto.getUpdatedBy(), expectedVersion(id, ifMatch));
         if (userDto != null) {
-            return new ResponseEntity<>(userDto, HttpStatus.OK);
+            return withETag(userDto);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -65,15 +128,160 @@ public class UserController {
 
     @GetMapping("/getAllUsers")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<List<UserDto>> listUsers() {
-        List<UserDto> users = userService.listUsers();
-        return new ResponseEntity<>(users, HttpStatus.OK);
+    public ResponseEntity<Iterator<UserDto>> listUsers(WebRequest request) {
+        String eTag = userSetETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return revalidated(eTag).body(allUsers());
+    }
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<UserPageDto> listUsers(UserSearchCriteria criteria,
+                                                 @RequestParam(value = "after", required = false) Long after,
+                                                 @RequestParam(value = "limit", defaultValue = "50") int limit,
+                                                 WebRequest request) {
+        String eTag = userSetETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        UserPageDto page = userService.listUsers(criteria, after, limit);
+        return revalidated(eTag).body(page);
+    }
+
+    // roles as a comma-separated list; match=ALL for users holding every role, ANY for users holding at least one
+    @GetMapping("/by-role")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<UserPageDto> listUsersByRoles(@RequestParam("roles") Set<String> roles,
+                                                        @RequestParam(value = "match", defaultValue = "ANY") RoleMatch match,
+                                                        @RequestParam(value = "after", required = false) Long after,
+                                                        @RequestParam(value = "limit", defaultValue = "50") int limit,
+                                                        WebRequest request) {
+        String eTag = userSetETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        UserPageDto page = userService.findUsersByRoles(roles, match, after, limit);
+        return revalidated(eTag).body(page);
+    }
+
+    @GetMapping("/by-role/count")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<UserCountDto> countUsersByRoles(@RequestParam("roles") Set<String> roles,
+                                                          @RequestParam(value = "match", defaultValue = "ANY") RoleMatch match) {
+        return ResponseEntity.ok(new UserCountDto(userService.countUsersByRoles(roles, match)));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamUsers(UserSearchCriteria criteria) {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                userService.streamUsers(criteria, userDto -> {
+                    try {
+                        writer.write(userDto);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{Username}/profile")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<UserDto> viewProfile(@PathVariable("Username") String username) {
+    public ResponseEntity<UserDto> viewProfile(@PathVariable("Username") String username, WebRequest request) {
+        // served from the profile cache when warm, so a matching If-None-Match costs no query
         UserDto userDto = userService.getUserProfile(username);
-        return new ResponseEntity<>(userDto, HttpStatus.OK);
+        if (userDto.getVersion() != null && request.checkNotModified(versionETag(userDto))) {
+            return null;
+        }
+        return withETag(userDto, revalidated(null));
+    }
+
+    // If-Match carries a strong ETag from an earlier response for the same user; "*" or no header accepts
+    // any version. A tag for another user never matches, even at the same version.
+    private static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 1 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        String prefix = id + "-";
+        String version = tag.startsWith(prefix) ? tag.substring(prefix.length()) : "";
+        try {
+            return Long.parseLong(version);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match does not name a version of user " + id + ": " + ifMatch);
+        }
+    }
+
+    private static ResponseEntity<UserDto> withETag(UserDto userDto) {
+        return withETag(userDto, ResponseEntity.ok());
+    }
+
+    private static ResponseEntity<UserDto> withETag(UserDto userDto, ResponseEntity.BodyBuilder response) {
+        if (userDto.getVersion() != null) {
+            response.eTag(versionETag(userDto));
+        }
+        return response.body(userDto);
+    }
+
+    // versions are per row, so the id keeps two users at the same version from sharing a tag
+    private static String versionETag(UserDto userDto) {
+        return "\"" + userDto.getId() + "-" + userDto.getVersion() + "\"";
+    }
+
+    // the list ETag is the same for every query string: a client caches per URL, and any write changes it.
+    // Weak, because Tomcat will not compress a response carrying a strong ETag; If-None-Match compares weakly.
+    private String userSetETag() {
+        return "W/\"users-" + userService.getUserSetVersion() + "\"";
+    }
+
+    // Jackson writes an Iterator element by element, so the array streams out while keyset pages are
+    // fetched one at a time, each in its own transaction. The request's persistence context stays open
+    // (open-in-view) for the whole response, so listUsers detaches each page's users once they are mapped;
+    // only the current page's DTOs and the few shared Role entities are held
+    private Iterator<UserDto> allUsers() {
+        UserSearchCriteria criteria = new UserSearchCriteria();
+        return new Iterator<>() {
+            private Iterator<UserDto> page = Collections.emptyIterator();
+            private Long after;
+            private boolean more = true;
+
+            @Override
+            public boolean hasNext() {
+                while (!page.hasNext() && more) {
+                    UserPageDto next = userService.listUsers(criteria, after, ALL_USERS_PAGE_SIZE);
+                    page = next.getContent().iterator();
+                    after = next.getNextCursor();
+                    more = next.isHasNext();
+                }
+                return page.hasNext();
+            }
+
+            @Override
+            public UserDto next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.next();
+            }
+        };
+    }
+
+    // storable, but private and revalidated on every use, so clients come back with If-None-Match
+    private static ResponseEntity.BodyBuilder revalidated(String eTag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate());
+        return eTag == null ? response : response.eTag(eTag);
     }
 }
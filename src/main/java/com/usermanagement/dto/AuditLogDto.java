@@ -0,0 +1,20 @@
+package com.usermanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogDto {
+    private Long id;
+    private Long userId;
+    private String username;
+    private String action;
+    private String performedBy;
+    private String details;
+    private LocalDateTime performedAt;
+}
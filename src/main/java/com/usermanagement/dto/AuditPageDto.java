@@ -0,0 +1,17 @@
+package com.usermanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditPageDto {
+    private List<AuditLogDto> content;
+    // position of the last entry in this page, pass it back as "after" to fetch the next (older) page
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,18 @@
+package com.usermanagement.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Data
+public class AuditSearchCriteria {
+    private Long userId;
+    private String action;
+    private String performedBy;
+    // inclusive lower and exclusive upper bound on performedAt
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+}
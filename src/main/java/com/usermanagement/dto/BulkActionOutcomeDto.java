@@ -0,0 +1,18 @@
+package com.usermanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkActionOutcomeDto {
+
+    public enum Status { APPROVED, REMOVED, ALREADY_APPROVED, NOT_FOUND, FAILED }
+
+    private Long id;
+    private String username;
+    private Status status;
+    private String error;
+}
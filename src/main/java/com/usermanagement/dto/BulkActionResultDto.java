@@ -0,0 +1,16 @@
+package com.usermanagement.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkActionResultDto {
+    private int total;
+    private int succeeded;
+    // selected users that were already in the requested state
+    private int skipped;
+    private int failed;
+    private List<BulkActionOutcomeDto> results = new ArrayList<>();
+}
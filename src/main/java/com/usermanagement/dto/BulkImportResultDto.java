@@ -0,0 +1,14 @@
+package com.usermanagement.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkImportResultDto {
+    private int total;
+    private int created;
+    private int failed;
+    private List<BulkUserResultDto> results = new ArrayList<>();
+}
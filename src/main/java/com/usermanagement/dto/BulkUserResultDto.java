@@ -0,0 +1,20 @@
+package com.usermanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserResultDto {
+
+    public enum Status { CREATED, FAILED }
+
+    // position of the row in the request body
+    private int index;
+    private String username;
+    private Status status;
+    private Long id;
+    private String error;
+}
@@ -0,0 +1,12 @@
+package com.usermanagement.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+// exactly one of ids or filter selects the users a bulk action applies to
+@Data
+public class BulkUserSelectionDto {
+    private List<Long> ids;
+    private UserSearchCriteria filter;
+}
@@ -1,6 +1,7 @@
 package com.usermanagement.dto;
 
 import lombok.Data;
+import lombok.ToString;
 
 import java.util.Set;
 
@@ -13,5 +14,8 @@ public class CreateUserDto {
     private Set<String> roles;
     private String createdBy;
     private String updatedBy;
+    // optional; only its BCrypt hash is stored
+    @ToString.Exclude
+    private String password;
 }
 
@@ -0,0 +1,4 @@
+package com.usermanagement.dto;
+
+// how a role query combines its roles: users holding every role, or users holding at least one
+public enum RoleMatch { ALL, ANY }
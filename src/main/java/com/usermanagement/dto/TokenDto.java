@@ -0,0 +1,15 @@
+package com.usermanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenDto {
+    private String token;
+    private String tokenType;
+    // seconds until the token expires
+    private long expiresIn;
+}
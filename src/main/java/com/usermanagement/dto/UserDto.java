@@ -13,5 +13,7 @@ public class UserDto {
     private String email;
     private Set<String> roles;
     private Boolean approved;
+    // sent as the ETag; pass it back in If-Match to update only the version that was read
+    private Long version;
 }
 
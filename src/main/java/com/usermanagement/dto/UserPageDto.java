@@ -0,0 +1,17 @@
+package com.usermanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPageDto {
+    private List<UserDto> content;
+    // id of the last user in this page, pass it back as "after" to fetch the next page
+    private Long nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,10 @@
+package com.usermanagement.dto;
+
+import lombok.Data;
+
+@Data
+public class UserSearchCriteria {
+    private Boolean approved;
+    private String createdBy;
+    private String role;
+}
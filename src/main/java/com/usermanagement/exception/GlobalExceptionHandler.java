@@ -1,5 +1,6 @@
 package com.usermanagement.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -23,11 +24,28 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(getErrorDetails(ex.getMessage(), HttpStatus.FORBIDDEN, request), HttpStatus.FORBIDDEN);
     }
 
+    // a @PreAuthorize role check failed; without this the generic handler would answer 500
+    @ExceptionHandler(org.springframework.security.access.AccessDeniedException.class)
+    public ResponseEntity<Object> handleAuthorizationDenied(org.springframework.security.access.AccessDeniedException ex, WebRequest request) {
+        return new ResponseEntity<>(getErrorDetails(ex.getMessage(), HttpStatus.FORBIDDEN, request), HttpStatus.FORBIDDEN);
+    }
+
     @ExceptionHandler(ValidationException.class)
     public ResponseEntity<Object> handleValidationException(ValidationException ex, WebRequest request) {
         return new ResponseEntity<>(getErrorDetails(ex.getMessage(), HttpStatus.BAD_REQUEST, request), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Object> handlePreconditionFailedException(PreconditionFailedException ex, WebRequest request) {
+        return new ResponseEntity<>(getErrorDetails(ex.getMessage(), HttpStatus.PRECONDITION_FAILED, request), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    // a concurrent update won and retries were exhausted or not applicable
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex, WebRequest request) {
+        return new ResponseEntity<>(getErrorDetails("The user was modified concurrently, please retry", HttpStatus.CONFLICT, request), HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleGenericException(Exception ex, WebRequest request) {
         return new ResponseEntity<>(getErrorDetails("Internal Server Error", HttpStatus.INTERNAL_SERVER_ERROR, request), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -0,0 +1,22 @@
+package com.usermanagement.mapper;
+
+import com.usermanagement.dto.CreateRoleDto;
+import com.usermanagement.dto.RoleDto;
+import com.usermanagement.model.Role;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface RoleMapper {
+
+    RoleDto toDto(Role role);
+
+    List<RoleDto> toDtos(List<Role> roles);
+
+    @Mapping(target = "id", ignore = true)
+    Role toEntity(CreateRoleDto dto);
+}
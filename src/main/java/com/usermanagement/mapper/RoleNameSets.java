@@ -0,0 +1,47 @@
+package com.usermanagement.mapper;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.usermanagement.model.Role;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Hands out one immutable set of interned role names per distinct combination of roles. Users overwhelmingly
+ * share a handful of combinations, so once those have been seen, mapping a user allocates no name set at all
+ * and every UserDto with the same roles references the same instance. The sets are unmodifiable; callers that
+ * need to edit role names must copy them.
+ */
+@Component
+public class RoleNameSets {
+
+    static final int MAX_COMBINATIONS = 10_000;
+
+    // keyed by detached copies of the roles, so managed entities are never retained or mutated through the key
+    private final Cache<Set<Role>, Set<String>> sets = Caffeine.newBuilder().maximumSize(MAX_COMBINATIONS).build();
+
+    private final Map<String, String> names = new ConcurrentHashMap<>();
+
+    public Set<String> toNames(Set<Role> roles) {
+        if (roles == null) {
+            return null;
+        }
+        if (roles.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> shared = sets.getIfPresent(roles);
+        if (shared == null) {
+            Set<Role> key = roles.stream()
+                    .map(role -> new Role(role.getId(), role.getName()))
+                    .collect(Collectors.toUnmodifiableSet());
+            shared = sets.get(key, k -> k.stream()
+                    .map(role -> names.computeIfAbsent(role.getName(), name -> name))
+                    .collect(Collectors.toUnmodifiableSet()));
+        }
+        return shared;
+    }
+}
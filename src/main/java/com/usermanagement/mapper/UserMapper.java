@@ -0,0 +1,38 @@
+package com.usermanagement.mapper;
+
+import com.usermanagement.dto.CreateUserDto;
+import com.usermanagement.dto.UserDto;
+import com.usermanagement.model.User;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, uses = RoleNameSets.class,
+        injectionStrategy = InjectionStrategy.CONSTRUCTOR, unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface UserMapper {
+
+    // roles become the shared name set for that combination, see RoleNameSets
+    UserDto toDto(User user);
+
+    // roles are resolved by the caller against the role cache, and the caller hashes the password;
+    // approval, versioning and timestamps stay with the entity
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "roles", ignore = true)
+    @Mapping(target = "approved", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedBy", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "passwordHash", ignore = true)
+    User toEntity(CreateUserDto dto);
+
+    // the fields a creator may edit before approval
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "firstName")
+    @Mapping(target = "lastName")
+    @Mapping(target = "email")
+    void updateProfile(CreateUserDto dto, @MappingTarget User user);
+}
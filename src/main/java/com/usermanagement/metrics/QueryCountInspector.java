@@ -0,0 +1,36 @@
+package com.usermanagement.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a count is open. Registered by
+ * class name through {@code hibernate.session_factory.statement_inspector}, so the count lives in a
+ * thread-local rather than in a Spring bean; {@code QueryCountFilter} opens and reads it per request.
+ * Statements issued through JdbcTemplate (audit partitions) bypass Hibernate and are not counted.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        long[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    public static void start() {
+        COUNT.set(new long[1]);
+    }
+
+    /**
+     * Closes the count opened by {@link #start()} and returns the number of statements seen since.
+     */
+    public static long stop() {
+        long[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+}
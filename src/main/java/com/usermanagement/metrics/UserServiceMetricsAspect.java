@@ -0,0 +1,65 @@
+package com.usermanagement.metrics;
+
+import com.usermanagement.exception.PreconditionFailedException;
+import com.usermanagement.exception.ResourceNotFoundException;
+import com.usermanagement.exception.ValidationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every {@code UserService} call as {@code user.service} tagged with the operation (method name, so
+ * overloads share a timer) and its outcome. Ordered outside the retry and transaction advisors, so a timing
+ * covers all retry attempts and the commit. Percentile histograms are switched on in application.properties.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 2)
+public class UserServiceMetricsAspect {
+
+    static final String TIMER = "user.service";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Around("execution(* com.usermanagement.service.UserService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer(TIMER, "operation", joinPoint.getSignature().getName(), "outcome", outcome));
+        }
+    }
+
+    static String outcome(Throwable e) {
+        if (e instanceof ResourceNotFoundException) {
+            return "not_found";
+        }
+        if (e instanceof ValidationException) {
+            return "invalid";
+        }
+        if (e instanceof PreconditionFailedException) {
+            return "precondition_failed";
+        }
+        if (e instanceof OptimisticLockingFailureException || e instanceof DataIntegrityViolationException) {
+            return "conflict";
+        }
+        if (e instanceof com.usermanagement.exception.AccessDeniedException || e instanceof java.nio.file.AccessDeniedException) {
+            return "denied";
+        }
+        return "error";
+    }
+}
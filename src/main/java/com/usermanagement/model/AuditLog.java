@@ -1,29 +0,0 @@
-package com.usermanagement.model;
-
-import jakarta.persistence.*;
-import lombok.Data;
-
-import java.time.LocalDateTime;
-
-@Entity
-@Data
-@Table(name = "auditLogs")
-public class AuditLog {
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    private String action;
-
-    private String performedBy;
-
-    private String details;
-
-    private LocalDateTime performedAt = LocalDateTime.now();
-
-    @ManyToOne
-    private User user;
-
-}
-
@@ -2,6 +2,7 @@ package com.usermanagement.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -9,13 +10,18 @@ import java.util.Set;
 
 @Entity
 @Data
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_created_by", columnList = "created_by"),
+        @Index(name = "idx_users_approved", columnList = "approved")
+})
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
+    @Column(unique = true)
     private String username;
 
     private String firstName;
@@ -28,7 +34,12 @@ public class User {
 
     private String updatedBy;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    // BCrypt, null for users that cannot log in; kept out of toString so it never reaches a log line
+    @ToString.Exclude
+    private String passwordHash;
+
+    // not cached: approve and delete are bulk JPQL on User, and each one would evict the whole collection region
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "role_id"))
@@ -37,4 +48,7 @@ public class User {
     private Boolean approved = false;
 
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Version
+    private Long version;
 }
@@ -1,8 +0,0 @@
-package com.usermanagement.repository;
-
-import com.usermanagement.model.AuditLog;
-import org.springframework.data.jpa.repository.JpaRepository;
-
-public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
-}
-
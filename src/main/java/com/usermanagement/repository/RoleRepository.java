@@ -1,9 +1,19 @@
 package com.usermanagement.repository;
 
 import com.usermanagement.model.Role;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
 
 public interface RoleRepository extends JpaRepository<Role, Long> {
+    // results live in the query cache until the roles table is next written
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Role findByName(String name);
-}
 
+    List<Role> findByNameIn(Collection<String> names);
+}
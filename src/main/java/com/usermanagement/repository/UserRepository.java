@@ -1,9 +1,134 @@
 package com.usermanagement.repository;
 
 import com.usermanagement.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    // roles are lazy; every path that maps to UserDto fetches them in the same statement
+
+    @EntityGraph(attributePaths = "roles")
     User findByUsername(String username);
-}
 
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findById(Long id);
+
+    @Query("select u from User u left join fetch u.roles where u.id in :ids order by u.id")
+    List<User> findAllWithRolesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select u.username from User u where u.username in :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    boolean existsByUsername(String username);
+
+    @Query("select u.username from User u where u.id = :id")
+    Optional<String> findUsernameById(@Param("id") Long id);
+
+    // single-statement approval: the affected-row count says whether this call approved the user
+    @Modifying
+    @Query("update User u set u.approved = true, u.version = u.version + 1"
+            + " where u.id = :id and u.approved = false and (:expectedVersion is null or u.version = :expectedVersion)")
+    int approve(@Param("id") Long id, @Param("expectedVersion") Long expectedVersion);
+
+    // only read when approve affected no row, to tell the caller why
+    @Query("select u.approved as approved, u.version as version from User u where u.id = :id")
+    Optional<ApprovalState> findApprovalStateById(@Param("id") Long id);
+
+    // the approved user as the response needs it, one row per role (a single null roleName when it has none)
+    @Query("select u.id as id, u.username as username, u.firstName as firstName, u.lastName as lastName,"
+            + " u.email as email, u.approved as approved, u.version as version, r.name as roleName"
+            + " from User u left join u.roles r where u.id = :id")
+    List<ProfileRow> findProfileRowsById(@Param("id") Long id);
+
+    // bulk actions lock their chunk first, so the outcome of every id is decided against a stable row
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u.id as id, u.username as username, u.approved as approved from User u where u.id in :ids")
+    List<UserRow> lockAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update User u set u.approved = true, u.version = u.version + 1 where u.id in :ids and u.approved = false")
+    int approveAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from User u where u.id in :ids")
+    int deleteUsersByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Hibernate deletes the user's user_roles rows in the same call, ahead of the users row
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int deleteUserById(@Param("id") Long id);
+
+    String FILTER = " u.id > :afterId"
+            + " and (:approved is null or u.approved = :approved)"
+            + " and (:createdBy is null or u.createdBy = :createdBy)"
+            + " and (:role is null or exists (select r.id from u.roles r where r.name = :role))";
+
+    // a collection fetch cannot be limited in SQL, so pages select ids first and fetch roles for those ids only
+    @Query("select u.id from User u where" + FILTER + " order by u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId,
+                            @Param("approved") Boolean approved,
+                            @Param("createdBy") String createdBy,
+                            @Param("role") String role,
+                            Limit limit);
+
+    @Query("select u from User u left join fetch u.roles where" + FILTER + " order by u.id")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<User> streamAfter(@Param("afterId") Long afterId,
+                             @Param("approved") Boolean approved,
+                             @Param("createdBy") String createdBy,
+                             @Param("role") String role);
+
+    interface UserRow {
+        Long getId();
+
+        String getUsername();
+
+        Boolean getApproved();
+    }
+
+    interface ProfileRow {
+        Long getId();
+
+        String getUsername();
+
+        String getFirstName();
+
+        String getLastName();
+
+        String getEmail();
+
+        Boolean getApproved();
+
+        Long getVersion();
+
+        String getRoleName();
+    }
+
+    interface ApprovalState {
+        Boolean getApproved();
+
+        Long getVersion();
+    }
+}
@@ -0,0 +1,15 @@
+package com.usermanagement.retry;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an idempotent service method that may be re-run in a fresh transaction when it loses an
+ * optimistic-lock race. Only apply it to operations whose outcome does not depend on how often they run.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
@@ -0,0 +1,52 @@
+package com.usermanagement.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Re-runs {@link RetryOnConflict} methods after an optimistic-lock failure, up to {@code app.retry.max-attempts}
+ * times with a jittered, linearly growing pause. Ordered ahead of the transaction advisor so every attempt
+ * runs in its own transaction and re-reads the current row; when called inside an existing transaction the
+ * failure is left to the caller, since that transaction is already marked for rollback.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@Slf4j
+public class RetryOnConflictAspect {
+
+    @Value("${app.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.retry.backoff-ms:20}")
+    private long backoffMs;
+
+    @Around("@annotation(com.usermanagement.retry.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("{} lost an update race, attempt {} of {}", joinPoint.getSignature().toShortString(),
+                        attempt, maxAttempts);
+                Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMs * attempt + 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.usermanagement.security;
+
+import com.usermanagement.model.Role;
+import com.usermanagement.model.User;
+import com.usermanagement.repository.RoleRepository;
+import com.usermanagement.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Makes sure the configured admin account exists, so a fresh database can be logged into. Runs before
+ * ApplicationReadyEvent, so the role cache picks up the ADMIN role when it loads. The role is stored without
+ * a prefix, like the others; DatabaseUserDetailsService grants it as ROLE_ADMIN. An existing account is
+ * left as it is, including its password, unless it has none: an account from before passwords were stored
+ * gets the configured password and the ADMIN role, since every API call now needs a login.
+ */
+@Component
+@Slf4j
+public class AdminAccountInitializer implements ApplicationRunner {
+
+    static final String ADMIN_ROLE = "ADMIN";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${app.security.admin.username:admin}")
+    private String username;
+
+    @Value("${app.security.admin.password}")
+    private String password;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        User existing = userRepository.findByUsername(username);
+        if (existing != null && existing.getPasswordHash() != null) {
+            return;
+        }
+        Role role = roleRepository.findByName(ADMIN_ROLE);
+        if (role == null) {
+            role = roleRepository.save(new Role(null, ADMIN_ROLE));
+        }
+
+        if (existing != null) {
+            existing.setPasswordHash(passwordEncoder.encode(password));
+            existing.getRoles().add(role);
+            userRepository.save(existing);
+            log.info("Set the configured password on existing admin account {}", username);
+            return;
+        }
+        User admin = new User();
+        admin.setUsername(username);
+        admin.setCreatedBy("system");
+        admin.setApproved(true);
+        admin.setPasswordHash(passwordEncoder.encode(password));
+        admin.setRoles(new HashSet<>(Set.of(role)));
+        userRepository.save(admin);
+        log.info("Created admin account {}", username);
+    }
+}
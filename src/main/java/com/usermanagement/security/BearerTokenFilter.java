@@ -0,0 +1,79 @@
+package com.usermanagement.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AccountStatusException;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates {@code Authorization: Bearer <token>} against the {@link TokenStore}: a map lookup instead
+ * of the password hash Basic pays on every request. Authorities are taken from the cached principal rather
+ * than frozen at issue, so role changes apply to live tokens, and a removed or disabled user's tokens are revoked
+ * on their next use.
+ * An unknown or expired token is rejected with 401 rather than passed on anonymously, so the client knows
+ * to log in again. Added to the security chain in SecurityConfig, not registered as a servlet filter of its own.
+ */
+public class BearerTokenFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = "Bearer ";
+
+    private final TokenStore tokenStore;
+
+    private final UserDetailsService userDetailsService;
+
+    private final AccountStatusUserDetailsChecker accountStatusChecker = new AccountStatusUserDetailsChecker();
+
+    public BearerTokenFilter(TokenStore tokenStore, UserDetailsService userDetailsService) {
+        this.tokenStore = tokenStore;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String token = header.substring(PREFIX.length()).trim();
+        Authentication issued = tokenStore.resolve(token);
+        if (issued == null) {
+            reject(response);
+            return;
+        }
+        UserDetails user;
+        try {
+            user = userDetailsService.loadUserByUsername(issued.getName());
+            accountStatusChecker.check(user);
+        } catch (UsernameNotFoundException | AccountStatusException e) {
+            tokenStore.revoke(token);
+            reject(response);
+            return;
+        }
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new PreAuthenticatedAuthenticationToken(user.getUsername(), token, user.getAuthorities()));
+        SecurityContextHolder.setContext(context);
+        filterChain.doFilter(request, response);
+    }
+
+    private static void reject(HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+        response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+    }
+}
@@ -0,0 +1,106 @@
+package com.usermanagement.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.usermanagement.model.Role;
+import com.usermanagement.model.User;
+import com.usermanagement.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Principals for Basic logins and bearer tokens, read from the users table with their roles as authorities
+ * and cached per username, so authenticating a known user costs no query. Write paths that change what a
+ * principal may do (role assignment, removal) invalidate the entry immediately and again once their
+ * transaction completes, as UserProfileCache does. The TTL only bounds changes made outside the service.
+ * <p>
+ * The cache holds plain values and every load builds a fresh UserDetails, because the ProviderManager
+ * erases the password of the instance it authenticated.
+ */
+@Service
+public class DatabaseUserDetailsService implements UserDetailsService {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.security.principal-cache.ttl:10m}")
+    private Duration ttl;
+
+    private Cache<String, Principal> principals;
+
+    record Principal(String username, String passwordHash, List<GrantedAuthority> authorities) {
+    }
+
+    @PostConstruct
+    void init() {
+        principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "auth.principals");
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        Principal principal = principals.get(username, this::load);
+        if (principal == null) {
+            throw new UsernameNotFoundException("User not found: " + username);
+        }
+        return org.springframework.security.core.userdetails.User.withUsername(principal.username())
+                .password(principal.passwordHash() == null ? "" : principal.passwordHash())
+                .disabled(principal.passwordHash() == null)
+                .authorities(principal.authorities())
+                .build();
+    }
+
+    public void invalidate(String username) {
+        principals.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    principals.invalidate(username);
+                }
+            });
+        }
+    }
+
+    // null is not cached, so a user created later is found on the next login
+    private Principal load(String username) {
+        User user = userRepository.findByUsername(username);
+        if (user == null) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = user.getRoles().stream()
+                .map(Role::getName)
+                .map(name -> name.startsWith(ROLE_PREFIX) ? name : ROLE_PREFIX + name)
+                .sorted()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toUnmodifiableList());
+        return new Principal(user.getUsername(), user.getPasswordHash(), authorities);
+    }
+}
@@ -0,0 +1,75 @@
+package com.usermanagement.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Opaque bearer tokens issued after one password login, so later requests skip the BCrypt check. A token
+ * is 256 random bits mapped in memory to the principal and authorities it was issued for; it expires a
+ * fixed time after issue and cannot be refreshed with itself. Tokens do not survive a restart and are not
+ * shared between instances; a client that gets 401 logs in again. Evicting the oldest tokens at the size
+ * bound has the same effect.
+ */
+@Component
+public class TokenStore {
+
+    private static final int TOKEN_BYTES = 32;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.security.token.ttl:30m}")
+    private Duration ttl;
+
+    @Value("${app.security.token.max-size:100000}")
+    private long maxSize;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private Cache<String, PreAuthenticatedAuthenticationToken> tokens;
+
+    @PostConstruct
+    void init() {
+        tokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, "auth.tokens");
+    }
+
+    public String issue(Authentication authentication) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        PreAuthenticatedAuthenticationToken bearer = new PreAuthenticatedAuthenticationToken(
+                authentication.getName(), token, authentication.getAuthorities());
+        tokens.put(token, bearer);
+        return token;
+    }
+
+    // the authentication a token was issued for, or null when it is unknown, expired or revoked
+    public Authentication resolve(String token) {
+        return tokens.getIfPresent(token);
+    }
+
+    public void revoke(String token) {
+        tokens.invalidate(token);
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+}
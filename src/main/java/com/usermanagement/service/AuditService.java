@@ -0,0 +1,12 @@
+package com.usermanagement.service;
+
+import com.usermanagement.dto.AuditLogDto;
+import com.usermanagement.dto.AuditPageDto;
+import com.usermanagement.dto.AuditSearchCriteria;
+
+import java.util.function.Consumer;
+
+public interface AuditService {
+    AuditPageDto searchAuditLog(AuditSearchCriteria criteria, String after, int limit);
+    void exportAuditLog(AuditSearchCriteria criteria, Consumer<AuditLogDto> consumer);
+}
@@ -0,0 +1,18 @@
+package com.usermanagement.service;
+
+import com.usermanagement.dto.BulkActionResultDto;
+import com.usermanagement.dto.BulkImportResultDto;
+import com.usermanagement.dto.BulkUserSelectionDto;
+import com.usermanagement.dto.CreateUserDto;
+
+import java.util.Iterator;
+
+public interface UserBulkService {
+
+    BulkImportResultDto importUsers(Iterator<CreateUserDto> users);
+
+    BulkActionResultDto approveUsers(BulkUserSelectionDto selection, String approvedBy);
+
+    BulkActionResultDto removeUsers(BulkUserSelectionDto selection, String removedBy);
+
+}
@@ -1,26 +1,44 @@
 package com.usermanagement.service;
 
 import com.usermanagement.dto.CreateUserDto;
+import com.usermanagement.dto.RoleMatch;
 import com.usermanagement.dto.UserDto;
+import com.usermanagement.dto.UserPageDto;
+import com.usermanagement.dto.UserSearchCriteria;
 
 import java.nio.file.AccessDeniedException;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 public interface UserService {
 
     UserDto createUser(CreateUserDto createUserDto, String createdBy);
 
-    UserDto assignRoles(Long userId, Set<String> roleNames);
+    UserDto assignRoles(Long userId, Set<String> roleNames, String assignedBy);
 
     UserDto approveUser(Long userId, String approvedBy);
 
+    UserDto approveUser(Long userId, String approvedBy, Long expectedVersion);
+
     UserDto updateUser(Long userId, CreateUserDto updateUserDto, String updatedBy) throws AccessDeniedException;
 
+    UserDto updateUser(Long userId, CreateUserDto updateUserDto, String updatedBy, Long expectedVersion) throws AccessDeniedException;
+
     void removeUser(Long userId, String removedBy);
 
-    List<UserDto> listUsers();
+    UserPageDto listUsers(UserSearchCriteria criteria, Long afterId, int limit);
+
+    void streamUsers(UserSearchCriteria criteria, Consumer<UserDto> consumer);
 
     UserDto getUserProfile(String username);
 
+    // answered from the role membership index; only the users of the returned page are read from the database
+    UserPageDto findUsersByRoles(Set<String> roleNames, RoleMatch match, Long afterId, int limit);
+
+    long countUsersByRoles(Set<String> roleNames, RoleMatch match);
+
+    // opaque token that changes after every committed user write; take it before reading the list it validates
+    String getUserSetVersion();
+
 }
@@ -0,0 +1,74 @@
+package com.usermanagement.service.impl;
+
+import com.usermanagement.audit.AuditLogReader;
+import com.usermanagement.dto.AuditLogDto;
+import com.usermanagement.dto.AuditPageDto;
+import com.usermanagement.dto.AuditSearchCriteria;
+import com.usermanagement.exception.ValidationException;
+import com.usermanagement.service.AuditService;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Service
+@Transactional
+public class AuditServiceImpl implements AuditService {
+
+    static final int MAX_PAGE_SIZE = 500;
+
+    // cursors look like 2024-05-01T10:15:30.123456_42: the last entry's performedAt and id
+    private static final char CURSOR_SEPARATOR = '_';
+
+    @Autowired
+    private AuditLogReader auditLogReader;
+
+    @Override
+    public AuditPageDto searchAuditLog(AuditSearchCriteria criteria, String after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        validateRange(criteria);
+
+        LocalDateTime afterPerformedAt = null;
+        Long afterId = null;
+        if (after != null) {
+            int separator = after.lastIndexOf(CURSOR_SEPARATOR);
+            try {
+                afterPerformedAt = LocalDateTime.parse(after.substring(0, Math.max(separator, 0)));
+                afterId = Long.parseLong(after.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new ValidationException("Invalid cursor: " + after);
+            }
+        }
+
+        // fetch one extra entry to learn whether another page exists without a count query
+        List<AuditLogDto> content = auditLogReader.findPage(criteria, afterPerformedAt, afterId, limit + 1);
+        boolean hasNext = content.size() > limit;
+        if (hasNext) {
+            content = content.subList(0, limit);
+        }
+        String nextCursor = null;
+        if (!content.isEmpty()) {
+            AuditLogDto last = content.get(content.size() - 1);
+            nextCursor = last.getPerformedAt().toString() + CURSOR_SEPARATOR + last.getId();
+        }
+        return new AuditPageDto(content, nextCursor, hasNext);
+    }
+
+    @Override
+    public void exportAuditLog(AuditSearchCriteria criteria, Consumer<AuditLogDto> consumer) {
+        validateRange(criteria);
+        auditLogReader.stream(criteria, consumer);
+    }
+
+    private static void validateRange(AuditSearchCriteria criteria) {
+        if (criteria.getFrom() != null && criteria.getTo() != null && !criteria.getFrom().isBefore(criteria.getTo())) {
+            throw new ValidationException("from must be before to");
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.usermanagement.service.impl;
 
+import com.usermanagement.cache.RoleCache;
 import com.usermanagement.dto.CreateRoleDto;
 import com.usermanagement.dto.RoleDto;
+import com.usermanagement.mapper.RoleMapper;
 import com.usermanagement.model.Role;
 import com.usermanagement.repository.RoleRepository;
 import com.usermanagement.service.RoleService;
@@ -19,39 +21,35 @@ public class RoleServiceImpl implements RoleService {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private RoleCache roleCache;
+
+    @Autowired
+    private RoleMapper roleMapper;
+
     @Override
     public RoleDto createRole(CreateRoleDto createRoleDto) {
-        Role role = new Role();
-        role.setName(createRoleDto.getName());
+        Role role = roleMapper.toEntity(createRoleDto);
 
         roleRepository.save(role);
+        roleCache.put(role);
 
         log.info("Role {} created", role.getName());
 
-        return toDto(role);
+        return roleMapper.toDto(role);
     }
 
     @Override
     public List<RoleDto> createRoles(List<CreateRoleDto> createRoleDtos) {
         List<Role> roles = createRoleDtos.stream()
-                .map(dto -> {
-                    Role role = new Role();
-                    role.setName(dto.getName());
-                    return role;
-                })
+                .map(roleMapper::toEntity)
                 .collect(Collectors.toList());
 
         List<Role> savedRoles = roleRepository.saveAll(roles);
+        savedRoles.forEach(roleCache::put);
 
         log.info("Created {} roles", savedRoles.size());
 
-        return savedRoles.stream().map(this::toDto).collect(Collectors.toList());
-    }
-
-    private RoleDto toDto(Role role) {
-        RoleDto dto = new RoleDto();
-        dto.setId(role.getId());
-        dto.setName(role.getName());
-        return dto;
+        return roleMapper.toDtos(savedRoles);
     }
 }
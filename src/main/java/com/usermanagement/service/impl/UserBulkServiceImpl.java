@@ -0,0 +1,431 @@
+package com.usermanagement.service.impl;
+
+import com.usermanagement.audit.AuditDetails;
+import com.usermanagement.audit.AuditEvent;
+import com.usermanagement.audit.AuditSink;
+import com.usermanagement.cache.RoleCache;
+import com.usermanagement.cache.RoleMembershipIndex;
+import com.usermanagement.cache.UserProfileCache;
+import com.usermanagement.cache.UserSetVersion;
+import com.usermanagement.dto.BulkActionOutcomeDto;
+import com.usermanagement.dto.BulkActionResultDto;
+import com.usermanagement.dto.BulkImportResultDto;
+import com.usermanagement.dto.BulkUserResultDto;
+import com.usermanagement.dto.BulkUserSelectionDto;
+import com.usermanagement.dto.CreateUserDto;
+import com.usermanagement.dto.UserSearchCriteria;
+import com.usermanagement.exception.ResourceNotFoundException;
+import com.usermanagement.exception.ValidationException;
+import com.usermanagement.mapper.UserMapper;
+import com.usermanagement.model.Role;
+import com.usermanagement.model.User;
+import com.usermanagement.repository.UserRepository;
+import com.usermanagement.security.DatabaseUserDetailsService;
+import com.usermanagement.service.UserBulkService;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Imports users in chunks, each chunk in its own transaction. User ids come from a pooled sequence,
+ * so the inserts of a chunk are sent as JDBC batches. A chunk that fails to commit is retried row by
+ * row so that one bad row only fails itself, and a row that cannot be read is reported the same way.
+ * Each chunk is flushed and cleared from the persistence context, which open-in-view shares across the
+ * whole request, so later chunks do not dirty-check the users of earlier ones.
+ * <p>
+ * Bulk approval and removal work on the same chunk size: each chunk locks its rows, applies one set-based
+ * statement and hands its audit entries to the sink as one batch.
+ */
+@Service
+@Slf4j
+public class UserBulkServiceImpl implements UserBulkService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleCache roleCache;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private UserSetVersion userSetVersion;
+
+    @Autowired
+    private RoleMembershipIndex roleMembershipIndex;
+
+    @Autowired
+    private DatabaseUserDetailsService userDetailsService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AuditSink auditSink;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.import.chunk-size:500}")
+    private int chunkSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public BulkImportResultDto importUsers(Iterator<CreateUserDto> users) {
+        BulkImportResultDto report = new BulkImportResultDto();
+        List<CreateUserDto> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+        boolean previousUnreadable = false;
+        while (true) {
+            try {
+                if (!users.hasNext()) {
+                    break;
+                }
+            } catch (RuntimeException e) {
+                // the input itself is broken past this point, so nothing further can be read; a row that
+                // just failed already reported the break
+                importChunk(index, chunk, report);
+                index += chunk.size();
+                chunk.clear();
+                if (!previousUnreadable) {
+                    unreadable(index, e, report);
+                }
+                break;
+            }
+            try {
+                chunk.add(users.next());
+                previousUnreadable = false;
+            } catch (RuntimeException e) {
+                // the reader skips past the row that failed to map; earlier rows keep their order in the report
+                importChunk(index, chunk, report);
+                index += chunk.size();
+                chunk.clear();
+                unreadable(index++, e, report);
+                previousUnreadable = true;
+                continue;
+            }
+            if (chunk.size() == chunkSize) {
+                importChunk(index, chunk, report);
+                index += chunk.size();
+                chunk.clear();
+            }
+        }
+        importChunk(index, chunk, report);
+
+        log.info("Bulk import finished: {} created, {} failed", report.getCreated(), report.getFailed());
+        return report;
+    }
+
+    @Override
+    public BulkActionResultDto approveUsers(BulkUserSelectionDto selection, String approvedBy) {
+        requireActor("Approver", approvedBy);
+        BulkActionResultDto report = new BulkActionResultDto();
+        forEachChunk(selection, ids -> applyChunk(ids, report, () -> approveChunk(ids, approvedBy)));
+
+        log.info("Bulk approval finished: {} approved, {} skipped, {} failed",
+                report.getSucceeded(), report.getSkipped(), report.getFailed());
+        return report;
+    }
+
+    @Override
+    public BulkActionResultDto removeUsers(BulkUserSelectionDto selection, String removedBy) {
+        requireActor("Remover", removedBy);
+        BulkActionResultDto report = new BulkActionResultDto();
+        forEachChunk(selection, ids -> applyChunk(ids, report, () -> removeChunk(ids, removedBy)));
+
+        log.info("Bulk removal finished: {} removed, {} failed", report.getSucceeded(), report.getFailed());
+        return report;
+    }
+
+    private void requireActor(String role, String username) {
+        if (username == null || !userRepository.existsByUsername(username)) {
+            throw new ResourceNotFoundException(role + " not found: " + username);
+        }
+    }
+
+    // filters are walked by id keyset, so users changed by earlier chunks do not shift later ones
+    private void forEachChunk(BulkUserSelectionDto selection, Consumer<List<Long>> action) {
+        if ((selection.getIds() == null) == (selection.getFilter() == null)) {
+            throw new ValidationException("Select users either by ids or by filter");
+        }
+        if (selection.getIds() != null) {
+            List<Long> ids = selection.getIds().stream()
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .collect(Collectors.toList());
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                action.accept(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+            }
+            return;
+        }
+        UserSearchCriteria filter = selection.getFilter();
+        // an empty filter would select every user; acting on all of them has to be asked for by id
+        if (filter.getApproved() == null && filter.getCreatedBy() == null && filter.getRole() == null) {
+            throw new ValidationException("A filter must set at least one of approved, createdBy or role");
+        }
+        long afterId = 0L;
+        List<Long> ids;
+        do {
+            ids = userRepository.findIdsAfter(afterId, filter.getApproved(), filter.getCreatedBy(), filter.getRole(),
+                    Limit.of(chunkSize));
+            if (!ids.isEmpty()) {
+                action.accept(ids);
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == chunkSize);
+    }
+
+    private void applyChunk(List<Long> ids, BulkActionResultDto report, Supplier<List<BulkActionOutcomeDto>> chunk) {
+        List<BulkActionOutcomeDto> outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> chunk.get());
+        } catch (RuntimeException chunkFailure) {
+            log.warn("Bulk action on a chunk of {} users failed", ids.size(), chunkFailure);
+            outcomes = ids.stream()
+                    .map(id -> new BulkActionOutcomeDto(id, null, BulkActionOutcomeDto.Status.FAILED, chunkFailure.getMessage()))
+                    .collect(Collectors.toList());
+        }
+
+        for (BulkActionOutcomeDto outcome : outcomes) {
+            report.getResults().add(outcome);
+            report.setTotal(report.getTotal() + 1);
+            switch (outcome.getStatus()) {
+                case APPROVED, REMOVED -> report.setSucceeded(report.getSucceeded() + 1);
+                case ALREADY_APPROVED -> report.setSkipped(report.getSkipped() + 1);
+                default -> report.setFailed(report.getFailed() + 1);
+            }
+        }
+    }
+
+    private List<BulkActionOutcomeDto> approveChunk(List<Long> ids, String approvedBy) {
+        Map<Long, UserRepository.UserRow> rows = lock(ids);
+        List<Long> pending = rows.values().stream()
+                .filter(row -> !Boolean.TRUE.equals(row.getApproved()))
+                .map(UserRepository.UserRow::getId)
+                .collect(Collectors.toList());
+        if (!pending.isEmpty()) {
+            userRepository.approveAllByIdIn(pending);
+            userSetVersion.advance();
+        }
+
+        String details = AuditDetails.create()
+                .change("approved", false, true)
+                .field("approvedBy", approvedBy)
+                .toJson();
+        LocalDateTime now = LocalDateTime.now();
+        List<AuditEvent> events = new ArrayList<>(pending.size());
+        List<BulkActionOutcomeDto> outcomes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            UserRepository.UserRow row = rows.get(id);
+            if (row == null) {
+                outcomes.add(new BulkActionOutcomeDto(id, null, BulkActionOutcomeDto.Status.NOT_FOUND, null));
+            } else if (Boolean.TRUE.equals(row.getApproved())) {
+                outcomes.add(new BulkActionOutcomeDto(id, row.getUsername(), BulkActionOutcomeDto.Status.ALREADY_APPROVED, null));
+            } else {
+                outcomes.add(new BulkActionOutcomeDto(id, row.getUsername(), BulkActionOutcomeDto.Status.APPROVED, null));
+                events.add(new AuditEvent("APPROVE_USER", approvedBy, details, now, id, row.getUsername()));
+                userProfileCache.invalidate(row.getUsername());
+            }
+        }
+        auditSink.recordAll(events);
+        return outcomes;
+    }
+
+    private List<BulkActionOutcomeDto> removeChunk(List<Long> ids, String removedBy) {
+        Map<Long, UserRepository.UserRow> rows = lock(ids);
+        if (!rows.isEmpty()) {
+            userRepository.deleteUsersByIdIn(rows.keySet());
+            userSetVersion.advance();
+            roleMembershipIndex.removeAfterCommit(rows.keySet());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<AuditEvent> events = new ArrayList<>(rows.size());
+        List<BulkActionOutcomeDto> outcomes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            UserRepository.UserRow row = rows.get(id);
+            if (row == null) {
+                outcomes.add(new BulkActionOutcomeDto(id, null, BulkActionOutcomeDto.Status.NOT_FOUND, null));
+                continue;
+            }
+            outcomes.add(new BulkActionOutcomeDto(id, row.getUsername(), BulkActionOutcomeDto.Status.REMOVED, null));
+            events.add(new AuditEvent("REMOVE_USER", removedBy, AuditDetails.create()
+                    .field("username", row.getUsername())
+                    .field("removedBy", removedBy)
+                    .toJson(), now, id, row.getUsername()));
+            userProfileCache.invalidate(row.getUsername());
+            userDetailsService.invalidate(row.getUsername());
+        }
+        auditSink.recordAll(events);
+        return outcomes;
+    }
+
+    private Map<Long, UserRepository.UserRow> lock(List<Long> ids) {
+        return userRepository.lockAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(UserRepository.UserRow::getId, Function.identity()));
+    }
+
+    private void unreadable(int index, RuntimeException failure, BulkImportResultDto report) {
+        log.warn("Bulk import row {} could not be read: {}", index, failure.getMessage());
+        report.getResults().add(new BulkUserResultDto(index, null, BulkUserResultDto.Status.FAILED, null,
+                "Unreadable row: " + failure.getMessage()));
+        report.setTotal(report.getTotal() + 1);
+        report.setFailed(report.getFailed() + 1);
+    }
+
+    private void importChunk(int firstIndex, List<CreateUserDto> chunk, BulkImportResultDto report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        BulkUserResultDto[] results = new BulkUserResultDto[chunk.size()];
+        Map<Integer, User> valid = validate(firstIndex, chunk, results);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> save(valid.values()));
+        } catch (RuntimeException chunkFailure) {
+            log.warn("Bulk import chunk starting at row {} failed, retrying row by row", firstIndex, chunkFailure);
+            valid.entrySet().removeIf(entry -> !saveSingle(entry.getValue(), results, entry.getKey(), firstIndex));
+        }
+
+        valid.forEach((offset, user) -> results[offset] = new BulkUserResultDto(firstIndex + offset,
+                user.getUsername(), BulkUserResultDto.Status.CREATED, user.getId(), null));
+
+        for (BulkUserResultDto result : results) {
+            report.getResults().add(result);
+            report.setTotal(report.getTotal() + 1);
+            if (result.getStatus() == BulkUserResultDto.Status.CREATED) {
+                report.setCreated(report.getCreated() + 1);
+            } else {
+                report.setFailed(report.getFailed() + 1);
+            }
+        }
+    }
+
+    private Map<Integer, User> validate(int firstIndex, List<CreateUserDto> chunk, BulkUserResultDto[] results) {
+        Set<String> usernames = chunk.stream()
+                .map(CreateUserDto::getUsername)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> existing = usernames.isEmpty() ? Set.of() : userRepository.findExistingUsernames(usernames);
+
+        Set<String> roleNames = chunk.stream()
+                .filter(dto -> dto.getRoles() != null)
+                .flatMap(dto -> dto.getRoles().stream())
+                .collect(Collectors.toSet());
+        Map<String, Role> roles = roleNames.isEmpty() ? Map.of() : roleCache.findAllByName(roleNames);
+
+        Set<String> seen = new HashSet<>();
+        Map<Integer, User> valid = new LinkedHashMap<>();
+        for (int offset = 0; offset < chunk.size(); offset++) {
+            CreateUserDto dto = chunk.get(offset);
+            String error = validate(dto, existing, roles, seen);
+            if (error != null) {
+                results[offset] = new BulkUserResultDto(firstIndex + offset, dto.getUsername(),
+                        BulkUserResultDto.Status.FAILED, null, error);
+            } else {
+                valid.put(offset, toEntity(dto, roles));
+            }
+        }
+        return valid;
+    }
+
+    private String validate(CreateUserDto dto, Set<String> existing, Map<String, Role> roles, Set<String> seen) {
+        if (dto.getUsername() == null || dto.getUsername().isEmpty()) {
+            return "Username cannot be empty";
+        }
+        if (dto.getCreatedBy() == null) {
+            return "CreatedBy cannot be null";
+        }
+        if (existing.contains(dto.getUsername()) || !seen.add(dto.getUsername())) {
+            return "Username already exists: " + dto.getUsername();
+        }
+        if (dto.getRoles() != null) {
+            String missing = dto.getRoles().stream()
+                    .filter(roleName -> !roles.containsKey(roleName))
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            if (!missing.isEmpty()) {
+                return "Role not found: " + missing;
+            }
+        }
+        return null;
+    }
+
+    private User toEntity(CreateUserDto dto, Map<String, Role> roles) {
+        User user = userMapper.toEntity(dto);
+        // BCrypt dominates the cost of a row that carries a password
+        if (dto.getPassword() != null) {
+            user.setPasswordHash(passwordEncoder.encode(dto.getPassword()));
+        }
+        if (dto.getRoles() != null) {
+            user.setRoles(dto.getRoles().stream().map(roles::get).collect(Collectors.toSet()));
+        }
+        return user;
+    }
+
+    private boolean saveSingle(User user, BulkUserResultDto[] results, int offset, int firstIndex) {
+        try {
+            user.setId(null);
+            user.setVersion(null);
+            transactionTemplate.executeWithoutResult(status -> save(List.of(user)));
+            return true;
+        } catch (RuntimeException e) {
+            results[offset] = new BulkUserResultDto(firstIndex + offset, user.getUsername(),
+                    BulkUserResultDto.Status.FAILED, null, e.getMessage());
+            return false;
+        }
+    }
+
+    private void save(Iterable<User> users) {
+        userSetVersion.advance();
+        LocalDateTime now = LocalDateTime.now();
+        List<AuditEvent> events = new ArrayList<>();
+        for (User user : userRepository.saveAll(users)) {
+            roleMembershipIndex.addAfterCommit(user.getId(), user.getRoles());
+            String details = AuditDetails.create()
+                    .field("username", user.getUsername())
+                    .field("createdBy", user.getCreatedBy())
+                    .field("roles", AuditDetails.roleNames(user.getRoles()))
+                    .toJson();
+            events.add(new AuditEvent("CREATE_USER", user.getCreatedBy(), details, now, user.getId(), user.getUsername()));
+        }
+        auditSink.recordAll(events);
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
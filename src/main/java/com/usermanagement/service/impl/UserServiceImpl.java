@@ -1,40 +1,98 @@
 package com.usermanagement.service.impl;
 
+import com.usermanagement.audit.AuditDetails;
+import com.usermanagement.audit.AuditEvent;
+import com.usermanagement.audit.AuditSink;
+import com.usermanagement.cache.RoleCache;
+import com.usermanagement.cache.RoleMembershipIndex;
+import com.usermanagement.cache.UserProfileCache;
+import com.usermanagement.cache.UserSetVersion;
 import com.usermanagement.dto.CreateUserDto;
+import com.usermanagement.dto.RoleMatch;
 import com.usermanagement.dto.UserDto;
+import com.usermanagement.dto.UserPageDto;
+import com.usermanagement.dto.UserSearchCriteria;
+import com.usermanagement.exception.PreconditionFailedException;
 import com.usermanagement.exception.ResourceNotFoundException;
 import com.usermanagement.exception.ValidationException;
-import com.usermanagement.model.AuditLog;
+import com.usermanagement.mapper.UserMapper;
 import com.usermanagement.model.Role;
 import com.usermanagement.model.User;
-import com.usermanagement.repository.AuditLogRepository;
-import com.usermanagement.repository.RoleRepository;
 import com.usermanagement.repository.UserRepository;
+import com.usermanagement.retry.RetryOnConflict;
+import com.usermanagement.security.DatabaseUserDetailsService;
 import com.usermanagement.service.UserService;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.nio.file.AccessDeniedException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 @Slf4j
 public class UserServiceImpl implements UserService {
 
+    static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private RoleRepository roleRepository;
+    private RoleCache roleCache;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private UserSetVersion userSetVersion;
+
+    @Autowired
+    private RoleMembershipIndex roleMembershipIndex;
+
+    @Autowired
+    private DatabaseUserDetailsService userDetailsService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
 
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditSink auditSink;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
 
     @Override
     public UserDto createUser(CreateUserDto createUserDto, String createdBy) {
@@ -46,146 +104,302 @@ public class UserServiceImpl implements UserService {
             throw new ValidationException("CreatedBy cannot be null");
         }
 
-        User user = new User();
-        user.setUsername(createUserDto.getUsername());
-        user.setFirstName(createUserDto.getFirstName());
-        user.setLastName(createUserDto.getLastName());
-        user.setEmail(createUserDto.getEmail());
-        user.setCreatedBy(createUserDto.getCreatedBy());
-
-        log.info("CreateUser user:{}", user);
-
-        Set<Role> roles = new HashSet<>();
-        for (String roleName : createUserDto.getRoles()) {
-            Role role = roleRepository.findByName(roleName);
-            log.info("CreateUser role:{}", role);
-            if (role == null) {
-                throw new ResourceNotFoundException("Role not found: " + roleName);
-            }
-            roles.add(role);
+        User user = userMapper.toEntity(createUserDto);
+        user.setRoles(resolveRoles(createUserDto.getRoles()));
+        if (createUserDto.getPassword() != null) {
+            user.setPasswordHash(passwordEncoder.encode(createUserDto.getPassword()));
         }
-        user.setRoles(roles);
-
-        log.info("CreateUser before calling save");
 
         userRepository.save(user);
+        userSetVersion.advance();
+        roleMembershipIndex.addAfterCommit(user.getId(), user.getRoles());
 
-        logAction("CREATE_USER", user);
+        logAction("CREATE_USER", user, user.getCreatedBy(), AuditDetails.create()
+                .field("username", user.getUsername())
+                .field("createdBy", user.getCreatedBy())
+                .field("roles", AuditDetails.roleNames(user.getRoles()))
+                .toJson());
 
-        log.info("User detail {} created by {}", user, user.getCreatedBy());
+        // ids and names only: formatting the entity would walk its roles and allocate on every call
+        log.debug("User {} ({}) created by {}", user.getUsername(), user.getId(), user.getCreatedBy());
 
-        return toDto(user);
+        return userMapper.toDto(user);
     }
 
     @Override
-    public UserDto assignRoles(Long userId, Set<String> roleNames) {
+    @RetryOnConflict
+    public UserDto assignRoles(Long userId, Set<String> roleNames, String assignedBy) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
 
-        Set<Role> roles = new HashSet<>();
-        for (String roleName : roleNames) {
-            Role role = roleRepository.findByName(roleName);
-            if (role == null) {
-                throw new ResourceNotFoundException("Role not found: " + roleName);
-            }
-            roles.add(role);
-        }
+        Set<Role> roles = resolveRoles(roleNames);
 
+        List<String> rolesBefore = AuditDetails.roleNames(user.getRoles());
         user.getRoles().addAll(roles);
         userRepository.save(user);
-
-        logAction("ASSIGN_ROLES", user);
-
-        return toDto(user);
+        // flush so a concurrent change fails here, inside the retry, and the returned version is current
+        userRepository.flush();
+        userProfileCache.invalidate(user.getUsername());
+        userDetailsService.invalidate(user.getUsername());
+        userSetVersion.advance();
+        roleMembershipIndex.addAfterCommit(user.getId(), roles);
+
+        logAction("ASSIGN_ROLES", user, assignedBy, AuditDetails.create()
+                .change("roles", rolesBefore, AuditDetails.roleNames(user.getRoles()))
+                .toJson());
+
+        return userMapper.toDto(user);
     }
 
 
     @Override
     public UserDto approveUser(Long userId, String approvedBy) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
+        return approveUser(userId, approvedBy, null);
+    }
 
-        User approver = userRepository.findByUsername(approvedBy);
-        if (approver == null) {
+    // the conditional update is atomic, so concurrent approvals need neither an entity load nor a retry;
+    // the response is built from a projection of the updated row rather than by loading the user and its roles
+    @Override
+    public UserDto approveUser(Long userId, String approvedBy, Long expectedVersion) {
+        if (!userRepository.existsByUsername(approvedBy)) {
             throw new ResourceNotFoundException("Approver not found: " + approvedBy);
         }
 
-        if (user.getApproved()) {
-            throw new ValidationException("User is already approved.");
+        if (userRepository.approve(userId, expectedVersion) == 0) {
+            UserRepository.ApprovalState state = userRepository.findApprovalStateById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
+            if (Boolean.TRUE.equals(state.getApproved())) {
+                throw new ValidationException("User is already approved.");
+            }
+            throw new PreconditionFailedException("User " + userId + " is at version " + state.getVersion()
+                    + ", not " + expectedVersion);
         }
 
-        user.setApproved(true);
-        logAction("APPROVE_USER",  user);
+        List<UserRepository.ProfileRow> rows = userRepository.findProfileRowsById(userId);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("User not found: " + userId);
+        }
+        UserDto approved = toDto(rows);
+        userProfileCache.invalidate(approved.getUsername());
+        userSetVersion.advance();
+        logAction("APPROVE_USER", approved.getId(), approved.getUsername(), approvedBy, AuditDetails.create()
+                .change("approved", false, true)
+                .field("approvedBy", approvedBy)
+                .toJson());
+
+        return approved;
+    }
 
-        return toDto(user);
+    private static UserDto toDto(List<UserRepository.ProfileRow> rows) {
+        UserRepository.ProfileRow row = rows.get(0);
+        UserDto dto = new UserDto();
+        dto.setId(row.getId());
+        dto.setUsername(row.getUsername());
+        dto.setFirstName(row.getFirstName());
+        dto.setLastName(row.getLastName());
+        dto.setEmail(row.getEmail());
+        dto.setApproved(row.getApproved());
+        dto.setVersion(row.getVersion());
+        dto.setRoles(rows.stream()
+                .map(UserRepository.ProfileRow::getRoleName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet()));
+        return dto;
     }
 
     @Override
+    @RetryOnConflict
     public UserDto updateUser(Long userId, CreateUserDto updateUserDto, String updatedBy) throws AccessDeniedException {
+        return updateUser(userId, updateUserDto, updatedBy, null);
+    }
+
+    @Override
+    @RetryOnConflict
+    public UserDto updateUser(Long userId, CreateUserDto updateUserDto, String updatedBy, Long expectedVersion)
+            throws AccessDeniedException {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
+        checkVersion(user, expectedVersion);
 
         if (!user.getCreatedBy().equals(updatedBy) || user.getApproved()) {
             throw new AccessDeniedException("Only the creator can update the user before approval.");
         }
 
-        user.setFirstName(updateUserDto.getFirstName());
-        user.setLastName(updateUserDto.getLastName());
-        user.setEmail(updateUserDto.getEmail());
+        String details = AuditDetails.create()
+                .change("firstName", user.getFirstName(), updateUserDto.getFirstName())
+                .change("lastName", user.getLastName(), updateUserDto.getLastName())
+                .change("email", user.getEmail(), updateUserDto.getEmail())
+                .field("updatedBy", updatedBy)
+                .toJson();
 
-        logAction("UPDATE_USER", user);
+        userMapper.updateProfile(updateUserDto, user);
+        userRepository.save(user);
+        userRepository.flush();
+        userProfileCache.invalidate(user.getUsername());
+        userSetVersion.advance();
 
-        return toDto(user);
+        logAction("UPDATE_USER", user, updatedBy, details);
+
+        return userMapper.toDto(user);
     }
 
     @Override
     public void removeUser(Long userId, String removedBy) {
-        User user = userRepository.findById(userId)
+        String username = userRepository.findUsernameById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
 
-        User remover = userRepository.findByUsername(removedBy);
-        if (remover == null) {
+        if (!userRepository.existsByUsername(removedBy)) {
             throw new ResourceNotFoundException("Remover not found: " + removedBy);
         }
 
-        userRepository.delete(user);
-        logAction("REMOVE_USER",user);
+        if (userRepository.deleteUserById(userId) == 0) {
+            throw new ResourceNotFoundException("User not found: " + userId);
+        }
+        userProfileCache.invalidate(username);
+        userDetailsService.invalidate(username);
+        userSetVersion.advance();
+        roleMembershipIndex.removeAfterCommit(List.of(userId));
+        logAction("REMOVE_USER", userId, username, removedBy, AuditDetails.create()
+                .field("username", username)
+                .field("removedBy", removedBy)
+                .toJson());
     }
 
     @Override
-    public List<UserDto> listUsers() {
-        return userRepository.findAll().stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    public UserPageDto listUsers(UserSearchCriteria criteria, Long afterId, int limit) {
+        checkLimit(limit);
+
+        // fetch one extra id to learn whether another page exists without a count query
+        List<Long> ids = userRepository.findIdsAfter(afterId == null ? 0L : afterId,
+                criteria.getApproved(), criteria.getCreatedBy(), criteria.getRole(), Limit.of(limit + 1));
+
+        boolean hasNext = ids.size() > limit;
+        if (hasNext) {
+            ids = ids.subList(0, limit);
+        }
+        List<UserDto> content = loadPage(ids);
+        Long nextCursor = content.isEmpty() ? null : content.get(content.size() - 1).getId();
+
+        return new UserPageDto(content, nextCursor, hasNext);
     }
 
     @Override
+    public void streamUsers(UserSearchCriteria criteria, Consumer<UserDto> consumer) {
+        try (Stream<User> users = userRepository.streamAfter(0L,
+                criteria.getApproved(), criteria.getCreatedBy(), criteria.getRole())) {
+            users.forEach(user -> {
+                consumer.accept(userMapper.toDto(user));
+                // keep the persistence context from growing with the result set
+                entityManager.detach(user);
+            });
+        }
+    }
+
+    // detached once mapped, like streamUsers: with open-in-view the persistence context lives as long as the
+    // request, so a caller paging through every user would otherwise keep every page it has read managed
+    private List<UserDto> loadPage(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<User> users = userRepository.findAllWithRolesByIdIn(ids);
+        List<UserDto> content = new ArrayList<>(users.size());
+        for (User user : users) {
+            content.add(userMapper.toDto(user));
+            entityManager.detach(user);
+        }
+        return content;
+    }
+
+    // in memory: an If-None-Match check must not check out a connection
+    @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public String getUserSetVersion() {
+        return userSetVersion.current();
+    }
+
+    // outside the class-level transaction: a cache hit checks out no connection, only a miss opens one
+    @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
     public UserDto getUserProfile(String username) {
+        return userProfileCache.get(username, name -> readOnlyTransaction.execute(status -> loadProfile(name)));
+    }
+
+    @Override
+    public UserPageDto findUsersByRoles(Set<String> roleNames, RoleMatch match, Long afterId, int limit) {
+        checkLimit(limit);
+        List<Long> ids = roleMembershipIndex.findIdsAfter(roleIds(roleNames), match,
+                afterId == null ? 0L : afterId, limit + 1);
+
+        boolean hasNext = ids.size() > limit;
+        if (hasNext) {
+            ids = ids.subList(0, limit);
+        }
+        // an id the index still holds for a user removed meanwhile is simply not found
+        List<UserDto> content = loadPage(ids);
+        // the cursor comes from the index, so a page whose users were all removed still moves forward
+        Long nextCursor = ids.isEmpty() ? null : ids.get(ids.size() - 1);
+
+        return new UserPageDto(content, nextCursor, hasNext);
+    }
+
+    // roles resolve from the role cache and the count from the index, so no connection is needed
+    @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public long countUsersByRoles(Set<String> roleNames, RoleMatch match) {
+        return roleMembershipIndex.count(roleIds(roleNames), match);
+    }
+
+    private List<Long> roleIds(Set<String> roleNames) {
+        if (roleNames == null || roleNames.isEmpty()) {
+            throw new ValidationException("At least one role is required");
+        }
+        return resolveRoles(roleNames).stream().map(Role::getId).collect(Collectors.toList());
+    }
+
+    private UserDto loadProfile(String username) {
         User user = userRepository.findByUsername(username);
         if (user == null) {
             throw new ResourceNotFoundException("User not found: " + username);
         }
-        return toDto(user);
+        return userMapper.toDto(user);
     }
 
-    private void logAction(String action, User user) {
-        AuditLog log = new AuditLog();
-        log.setAction(action);
-        log.setPerformedBy(user.getUsername());
-        log.setUser(user);
-        log.setDetails("User: " + user);
-        auditLogRepository.save(log);
+    private Set<Role> resolveRoles(Set<String> roleNames) {
+        if (roleNames == null || roleNames.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        Map<String, Role> roles = roleCache.findAllByName(roleNames);
+        if (roles.size() < roleNames.size()) {
+            String missing = roleNames.stream()
+                    .filter(roleName -> !roles.containsKey(roleName))
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            throw new ResourceNotFoundException("Role not found: " + missing);
+        }
+        return new HashSet<>(roles.values());
     }
 
-    private UserDto toDto(User user) {
-        UserDto dto = new UserDto();
-        dto.setId(user.getId());
-        dto.setUsername(user.getUsername());
-        dto.setFirstName(user.getFirstName());
-        dto.setLastName(user.getLastName());
-        dto.setEmail(user.getEmail());
-        dto.setRoles(user.getRoles().stream().map(Role::getName).collect(Collectors.toSet()));
-        dto.setApproved(user.getApproved());
-        return dto;
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    // a missing expected version means the caller did not send If-Match and accepts the current state
+    private static void checkVersion(User user, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            throw new PreconditionFailedException("User " + user.getId() + " is at version " + user.getVersion()
+                    + ", not " + expectedVersion);
+        }
+    }
+
+    private void logAction(String action, User user, String performedBy, String details) {
+        logAction(action, user.getId(), user.getUsername(), performedBy, details);
+    }
+
+    // performedBy is the acting user; userId and username identify the user acted on
+    private void logAction(String action, Long userId, String username, String performedBy, String details) {
+        auditSink.record(new AuditEvent(action, performedBy, details, LocalDateTime.now(), userId, username));
     }
 }
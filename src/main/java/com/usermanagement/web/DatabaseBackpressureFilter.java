@@ -0,0 +1,87 @@
+package com.usermanagement.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the number of API requests that may work against the database at the same time. With virtual
+ * threads Tomcat accepts far more concurrent requests than the connection pool can serve; excess requests
+ * wait here on a semaphore (cheap for a virtual thread) and are rejected with 503 once the wait exceeds
+ * the timeout, instead of piling up inside the pool and failing with connection timeouts.
+ */
+@Component
+@ConditionalOnProperty(name = "app.db.backpressure.enabled", havingValue = "true")
+@Slf4j
+public class DatabaseBackpressureFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.db.backpressure.permits:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int permits;
+
+    @Value("${app.db.backpressure.timeout-ms:2000}")
+    private long timeoutMs;
+
+    private Semaphore semaphore;
+
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void init() {
+        semaphore = new Semaphore(permits);
+        Gauge.builder("db.backpressure.available", semaphore, Semaphore::availablePermits).register(meterRegistry);
+        rejectedCounter = Counter.builder("db.backpressure.rejected").register(meterRegistry);
+        log.info("Database backpressure enabled with {} permits", permits);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            rejectedCounter.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"status\":503,\"error\":\"Service Unavailable\",\"message\":\"Database is saturated, retry later\"}");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            semaphore.release();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+-- Schema as previously generated by Hibernate auto-DDL.
+
+create sequence users_seq start with 1 increment by 50;
+
+create sequence audit_log_seq start with 1 increment by 50;
+
+create table roles (
+    id bigint generated by default as identity,
+    name varchar(255) not null unique,
+    primary key (id)
+);
+
+create table users (
+    id bigint not null,
+    username varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    email varchar(255),
+    created_by varchar(255),
+    updated_by varchar(255),
+    approved boolean,
+    created_at timestamp(6),
+    primary key (id)
+);
+
+create table user_roles (
+    user_id bigint not null,
+    role_id bigint not null,
+    primary key (role_id, user_id),
+    constraint fk_user_roles_user foreign key (user_id) references users,
+    constraint fk_user_roles_role foreign key (role_id) references roles
+);
+
+create table audit_logs (
+    id bigint not null,
+    user_id bigint,
+    action varchar(255),
+    performed_by varchar(255),
+    details varchar(255),
+    performed_at timestamp(6),
+    primary key (id),
+    constraint fk_audit_logs_user foreign key (user_id) references users
+);
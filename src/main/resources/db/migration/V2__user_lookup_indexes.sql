@@ -0,0 +1,12 @@
+-- findByUsername, the createdBy/approved filters and per-user audit history no longer scan.
+
+alter table users add constraint uk_users_username unique (username);
+
+create index idx_users_created_by on users (created_by);
+
+create index idx_users_approved on users (approved);
+
+create index idx_audit_logs_user_performed_at on audit_logs (user_id, performed_at);
+
+-- the primary key leads with role_id; fetching a user's roles needs the reverse order
+create index idx_user_roles_user_role on user_roles (user_id, role_id);
@@ -0,0 +1,28 @@
+-- Audit rows move to month tables (audit_log_yyyymm) registered in audit_partitions. They keep the user
+-- id and username instead of a foreign key, so removing a user no longer conflicts with its history.
+
+alter table audit_logs drop constraint fk_audit_logs_user;
+
+alter table audit_logs add column username varchar(255);
+
+alter table audit_logs add column event_id varchar(36);
+
+alter table audit_logs alter column details set data type varchar(4000);
+
+update audit_logs a set username = (select u.username from users u where u.id = a.user_id);
+
+-- ids are now drawn per row by the JDBC writer, not by Hibernate's pooled optimizer
+alter sequence audit_log_seq increment by 1;
+
+create table audit_partitions (
+    table_name varchar(64) not null,
+    period_start timestamp(6) not null,
+    period_end timestamp(6) not null,
+    compacted boolean default false not null,
+    primary key (table_name)
+);
+
+-- the existing table becomes a read-only partition ending now; retention drops it like any other
+insert into audit_partitions (table_name, period_start, period_end, compacted)
+select 'audit_logs', coalesce(min(performed_at), current_timestamp), current_timestamp, false
+from audit_logs;
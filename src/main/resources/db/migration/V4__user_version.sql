@@ -0,0 +1,2 @@
+-- optimistic locking: every update of a user row checks and increments its version
+alter table users add column version bigint default 0 not null;
@@ -0,0 +1,2 @@
+-- BCrypt hash for password logins; users without one cannot log in
+alter table users add column password_hash varchar(100);
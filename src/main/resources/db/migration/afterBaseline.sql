@@ -0,0 +1,22 @@
+-- Flyway callback: runs once, when spring.flyway.baseline-on-migrate adopts a schema that Hibernate
+-- auto-DDL built before Flyway took over. It brings that schema to what V1 creates, so V2 onwards apply.
+
+-- ids came from identity columns; they now come from sequences started past the existing rows, leaving
+-- room for the 50 ids the pooled optimizer hands out below each sequence value
+alter table users alter column id drop identity;
+
+alter table audit_logs alter column id drop identity;
+
+create sequence if not exists users_seq start with 1 increment by 50;
+
+create sequence if not exists audit_log_seq start with 1 increment by 50;
+
+execute immediate 'alter sequence users_seq restart with ' || (select coalesce(max(id), 0) + 50 from users);
+
+execute immediate 'alter sequence audit_log_seq restart with ' || (select coalesce(max(id), 0) + 50 from audit_logs);
+
+-- auto-DDL named the audit foreign key at random; V3 drops it by the name V1 gives it
+execute immediate 'alter table audit_logs rename constraint '
+    || (select constraint_name from information_schema.table_constraints
+        where table_schema = current_schema and table_name = 'AUDIT_LOGS' and constraint_type = 'FOREIGN KEY')
+    || ' to fk_audit_logs_user';
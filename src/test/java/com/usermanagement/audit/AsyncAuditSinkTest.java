@@ -0,0 +1,270 @@
+package com.usermanagement.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class AsyncAuditSinkTest {
+
+    @Mock
+    private AuditLogWriter auditLogWriter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private AsyncAuditSink auditSink;
+
+    @TempDir
+    Path tempDir;
+
+    private Path walFile;
+
+    private Path deadLetterFile;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        walFile = tempDir.resolve("audit.wal");
+        deadLetterFile = tempDir.resolve("audit.dead");
+        configure(auditSink);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        auditSink.stop();
+    }
+
+    @Test
+    void record_ShouldPersistEventsInBackgroundAndTruncateWal() throws Exception {
+        auditSink.start();
+
+        auditSink.record(event("CREATE_USER", 1L));
+        auditSink.record(event("APPROVE_USER", 1L));
+
+        verify(auditLogWriter, timeout(2000).atLeastOnce()).write(anyList());
+        auditSink.stop();
+        assertEquals(List.of(), pendingInWal());
+        assertTrue(meterRegistry.get("audit.flush.latency").timer().count() >= 1);
+    }
+
+    @Test
+    void start_ShouldReplayEventsLeftInWal() throws Exception {
+        AuditEvent created = event("CREATE_USER", 1L);
+        AuditEvent assigned = event("ASSIGN_ROLES", 1L);
+        AuditWriteAheadLog wal = new AuditWriteAheadLog(walFile, objectMapper);
+        wal.append(created);
+        wal.append(assigned);
+        wal.close();
+
+        auditSink.start();
+
+        // replayed events keep their ids, so duplicates can be compacted away later
+        verify(auditLogWriter, timeout(2000).times(1)).write(List.of(created, assigned));
+        auditSink.stop();
+        assertFalse(Files.exists(walFile));
+        assertEquals(List.of(), pendingInWal());
+    }
+
+    @Test
+    void record_ShouldCountDroppedEventsWhenQueueIsFull() {
+        ReflectionTestUtils.setField(auditSink, "queueCapacity", 1);
+        doAnswer(invocation -> {
+            Thread.sleep(500);
+            return null;
+        }).when(auditLogWriter).write(anyList());
+        auditSink.start();
+
+        for (int i = 0; i < 5; i++) {
+            auditSink.record(event("CREATE_USER", (long) i));
+        }
+
+        assertTrue(meterRegistry.get("audit.dropped").counter().count() >= 3);
+    }
+
+    @Test
+    void record_ShouldMoveEventThatCannotBePersistedToDeadLetterFile() throws Exception {
+        doThrow(new DataIntegrityViolationException("value too long")).when(auditLogWriter).write(anyList());
+        auditSink.start();
+
+        auditSink.record(event("CREATE_USER", 1L));
+
+        verify(auditLogWriter, timeout(2000).times(2)).write(anyList());
+        auditSink.stop();
+        assertEquals(List.of(), pendingInWal());
+        assertEquals(1, new AuditWriteAheadLog(deadLetterFile, objectMapper).readAll().size());
+        assertEquals(1, meterRegistry.get("audit.failed").counter().count());
+    }
+
+    @Test
+    void start_ShouldNotReplayPersistedEventsAfterPartialFailure() throws Exception {
+        AuditEvent good = event("CREATE_USER", 1L);
+        AuditEvent bad = event("CREATE_USER", 2L);
+        List<AuditEvent> persisted = new CopyOnWriteArrayList<>();
+        // the flusher reuses its batch list, so keep what each call carried
+        doAnswer(invocation -> {
+            List<AuditEvent> events = invocation.getArgument(0);
+            if (events.contains(bad)) {
+                throw new IllegalStateException("value too long");
+            }
+            persisted.addAll(events);
+            return null;
+        }).when(auditLogWriter).write(anyList());
+        auditSink.start();
+
+        auditSink.recordAll(List.of(good, bad));
+        verify(auditLogWriter, timeout(2000).atLeast(2)).write(anyList());
+        auditSink.stop();
+
+        AsyncAuditSink restarted = restartedSink();
+        restarted.start();
+        restarted.stop();
+
+        assertEquals(List.of(good), persisted);
+        assertEquals(List.of(), pendingInWal());
+        assertEquals(List.of(bad), new AuditWriteAheadLog(deadLetterFile, objectMapper).readAll());
+    }
+
+    @Test
+    void record_ShouldRetryBatchWhileDatabaseIsUnreachable() throws Exception {
+        doThrow(new CannotGetJdbcConnectionException("Connection is not available, request timed out"))
+                .doNothing()
+                .when(auditLogWriter).write(anyList());
+        auditSink.start();
+
+        auditSink.record(event("CREATE_USER", 1L));
+
+        verify(auditLogWriter, timeout(2000).times(2)).write(anyList());
+        auditSink.stop();
+        assertEquals(List.of(), pendingInWal());
+        assertFalse(Files.exists(deadLetterFile));
+        assertEquals(1, meterRegistry.get("audit.retried").counter().count());
+    }
+
+    @Test
+    void stop_ShouldKeepEventsInWalWhileDatabaseIsUnreachable() throws Exception {
+        AuditEvent created = event("CREATE_USER", 1L);
+        doThrow(new DataAccessResourceFailureException("database down")).when(auditLogWriter).write(anyList());
+        auditSink.start();
+
+        auditSink.record(created);
+        verify(auditLogWriter, timeout(2000).atLeastOnce()).write(anyList());
+        auditSink.stop();
+
+        assertEquals(List.of(created), pendingInWal());
+        assertFalse(Files.exists(deadLetterFile));
+
+        reset(auditLogWriter);
+        AsyncAuditSink restarted = restartedSink();
+        restarted.start();
+        verify(auditLogWriter, timeout(2000)).write(List.of(created));
+        restarted.stop();
+        assertEquals(List.of(), pendingInWal());
+    }
+
+    @Test
+    void record_ShouldAppendBeforeCommitAndDiscardOnRollback() throws Exception {
+        AuditEvent created = event("CREATE_USER", 1L);
+        auditSink.start();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            auditSink.record(created);
+            // a crash from here on, even after the commit, still finds the event in the log
+            assertEquals(List.of(created), pendingInWal());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(), pendingInWal());
+        auditSink.stop();
+        verify(auditLogWriter, never()).write(anyList());
+    }
+
+    @Test
+    void record_ShouldDeleteSettledSegmentsUnderSustainedLoad() throws Exception {
+        ReflectionTestUtils.setField(auditSink, "walSegmentEvents", 2);
+        auditSink.start();
+
+        for (int i = 0; i < 9; i++) {
+            auditSink.record(event("CREATE_USER", (long) i));
+        }
+        verify(auditLogWriter, timeout(2000).atLeastOnce())
+                .write(argThat(events -> events.stream().anyMatch(event -> event.getUserId() == 8L)));
+        auditSink.stop();
+
+        try (Stream<Path> files = Files.list(tempDir)) {
+            // only the segment still being written to remains, and it holds nothing unsettled
+            assertEquals(1, files.filter(path -> path.getFileName().toString().startsWith("audit.wal.")).count());
+        }
+        assertEquals(List.of(), pendingInWal());
+    }
+
+    private void configure(AsyncAuditSink sink) {
+        ReflectionTestUtils.setField(sink, "queueCapacity", 100);
+        ReflectionTestUtils.setField(sink, "batchSize", 10);
+        ReflectionTestUtils.setField(sink, "flushIntervalMs", 20L);
+        ReflectionTestUtils.setField(sink, "walPath", walFile.toString());
+        ReflectionTestUtils.setField(sink, "walSegmentEvents", 100);
+        ReflectionTestUtils.setField(sink, "deadLetterPath", deadLetterFile.toString());
+        ReflectionTestUtils.setField(sink, "retryBackoffMs", 10L);
+        ReflectionTestUtils.setField(sink, "retryMaxBackoffMs", 50L);
+    }
+
+    private AsyncAuditSink restartedSink() {
+        AsyncAuditSink restarted = new AsyncAuditSink();
+        ReflectionTestUtils.setField(restarted, "auditLogWriter", auditLogWriter);
+        ReflectionTestUtils.setField(restarted, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(restarted, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(restarted, "meterRegistry", new SimpleMeterRegistry());
+        configure(restarted);
+        return restarted;
+    }
+
+    // what a restart would replay
+    private List<AuditEvent> pendingInWal() {
+        return new AuditWriteAheadSegments(walFile, objectMapper, 100).recover().stream()
+                .map(AuditWriteAheadSegments.Entry::event)
+                .toList();
+    }
+
+    private AuditEvent event(String action, Long userId) {
+        return new AuditEvent(action, "admin", "details", LocalDateTime.of(2024, 1, 1, 10, 0), userId, "user" + userId);
+    }
+}
@@ -0,0 +1,49 @@
+package com.usermanagement.audit;
+
+import com.usermanagement.model.Role;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AuditDetailsTest {
+
+    @Test
+    void toJson_ShouldWriteFieldsAndCollections() {
+        String json = AuditDetails.create()
+                .field("username", "jdoe")
+                .field("approved", false)
+                .field("roles", AuditDetails.roleNames(Set.of(new Role(2L, "ROLE_USER"), new Role(1L, "ROLE_ADMIN"))))
+                .field("email", null)
+                .toJson();
+
+        assertEquals("{\"username\":\"jdoe\",\"approved\":false,\"roles\":[\"ROLE_ADMIN\",\"ROLE_USER\"],\"email\":null}", json);
+    }
+
+    @Test
+    void change_ShouldOnlyRecordChangedFields() {
+        String json = AuditDetails.create()
+                .change("firstName", "John", "John")
+                .change("lastName", "Doe", "Smith")
+                .change("roles", List.of("ROLE_USER"), List.of("ROLE_ADMIN", "ROLE_USER"))
+                .toJson();
+
+        assertEquals("{\"lastName\":[\"Doe\",\"Smith\"],\"roles\":[[\"ROLE_USER\"],[\"ROLE_ADMIN\",\"ROLE_USER\"]]}", json);
+    }
+
+    @Test
+    void toJson_ShouldEscapeStrings() {
+        String json = AuditDetails.create()
+                .field("lastName", "O\"Brien\n")
+                .toJson();
+
+        assertEquals("{\"lastName\":\"O\\\"Brien\\n\"}", json);
+    }
+
+    @Test
+    void toJson_ShouldWriteEmptyObjectWhenNothingChanged() {
+        assertEquals("{}", AuditDetails.create().change("email", "a@b.c", "a@b.c").toJson());
+    }
+}
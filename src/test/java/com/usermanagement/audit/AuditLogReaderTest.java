@@ -0,0 +1,112 @@
+package com.usermanagement.audit;
+
+import com.usermanagement.dto.AuditLogDto;
+import com.usermanagement.dto.AuditSearchCriteria;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({AuditLogReader.class, AuditLogWriter.class, AuditPartitions.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuditLogReaderTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    // 90 events, one every 12 hours from January 1st, spread over three month partitions
+    private static final int EVENT_COUNT = 90;
+
+    @Autowired
+    private AuditLogReader auditLogReader;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private AuditPartitions auditPartitions;
+
+    @BeforeEach
+    void setUp() {
+        List<AuditEvent> events = new ArrayList<>();
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            events.add(new AuditEvent(i % 3 == 0 ? "APPROVE_USER" : "CREATE_USER", i % 2 == 0 ? "admin" : "hr",
+                    "{}", START.plusHours(12L * i), (long) (i % 5), "user" + (i % 5)));
+        }
+        auditLogWriter.write(events);
+    }
+
+    @AfterEach
+    void tearDown() {
+        auditPartitions.list().stream()
+                .filter(partition -> !partition.getTableName().equals("audit_logs"))
+                .forEach(auditPartitions::drop);
+    }
+
+    @Test
+    void findPage_ShouldWalkAllPartitionsNewestFirst() {
+        AuditSearchCriteria criteria = new AuditSearchCriteria();
+        List<AuditLogDto> all = new ArrayList<>();
+        List<AuditLogDto> page = auditLogReader.findPage(criteria, null, null, 7);
+        while (!page.isEmpty()) {
+            all.addAll(page);
+            AuditLogDto last = page.get(page.size() - 1);
+            page = auditLogReader.findPage(criteria, last.getPerformedAt(), last.getId(), 7);
+        }
+
+        assertEquals(EVENT_COUNT, all.size());
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            assertEquals(START.plusHours(12L * (EVENT_COUNT - 1 - i)), all.get(i).getPerformedAt());
+        }
+    }
+
+    @Test
+    void findPage_ShouldApplyFilters() {
+        AuditSearchCriteria criteria = new AuditSearchCriteria();
+        criteria.setUserId(0L);
+        criteria.setAction("APPROVE_USER");
+        criteria.setPerformedBy("admin");
+
+        List<AuditLogDto> page = auditLogReader.findPage(criteria, null, null, EVENT_COUNT);
+
+        // every 30th event is an approval by admin for user 0
+        assertEquals(EVENT_COUNT / 30, page.size());
+        assertTrue(page.stream().allMatch(entry -> entry.getUserId() == 0L && entry.getUsername().equals("user0")));
+    }
+
+    @Test
+    void findPage_ShouldRestrictToTimeRange() {
+        AuditSearchCriteria criteria = new AuditSearchCriteria();
+        criteria.setFrom(LocalDateTime.of(2024, 1, 31, 0, 0));
+        criteria.setTo(LocalDateTime.of(2024, 2, 2, 0, 0));
+
+        List<AuditLogDto> page = auditLogReader.findPage(criteria, null, null, EVENT_COUNT);
+
+        assertEquals(List.of(LocalDateTime.of(2024, 2, 1, 12, 0), LocalDateTime.of(2024, 2, 1, 0, 0),
+                        LocalDateTime.of(2024, 1, 31, 12, 0), LocalDateTime.of(2024, 1, 31, 0, 0)),
+                page.stream().map(AuditLogDto::getPerformedAt).collect(Collectors.toList()));
+    }
+
+    @Test
+    void stream_ShouldExportEveryMatchingEntry() {
+        AuditSearchCriteria criteria = new AuditSearchCriteria();
+        criteria.setPerformedBy("hr");
+        List<AuditLogDto> exported = new ArrayList<>();
+
+        auditLogReader.stream(criteria, exported::add);
+
+        assertEquals(EVENT_COUNT / 2, exported.size());
+        assertTrue(exported.stream().allMatch(entry -> entry.getPerformedBy().equals("hr")));
+    }
+}
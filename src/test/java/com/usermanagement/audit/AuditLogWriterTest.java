@@ -0,0 +1,135 @@
+package com.usermanagement.audit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "app.audit.retention-months=3")
+@Import({AuditLogWriter.class, AuditPartitions.class, AuditMaintenance.class})
+// partition DDL commits on its own, so the test manages cleanup instead of rolling back
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuditLogWriterTest {
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private AuditPartitions auditPartitions;
+
+    @Autowired
+    private AuditMaintenance auditMaintenance;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        auditPartitions.list().stream()
+                .filter(partition -> !partition.getTableName().equals("audit_logs"))
+                .forEach(auditPartitions::drop);
+    }
+
+    @Test
+    void write_ShouldAppendToMonthPartitions() {
+        auditLogWriter.write(List.of(
+                event("CREATE_USER", LocalDateTime.of(2024, 1, 31, 23, 59)),
+                event("APPROVE_USER", LocalDateTime.of(2024, 2, 1, 0, 0)),
+                event("UPDATE_USER", LocalDateTime.of(2024, 2, 15, 12, 0))));
+
+        assertEquals(Set.of("audit_logs", "audit_log_202401", "audit_log_202402"), Set.copyOf(tableNames()));
+        assertEquals(1, count("audit_log_202401"));
+        assertEquals(2, count("audit_log_202402"));
+        assertEquals("user1", jdbcTemplate.queryForObject(
+                "select username from audit_log_202401 where user_id = 1", String.class));
+    }
+
+    @Test
+    void write_ShouldKeepHistoryOfUsersThatNoLongerExist() {
+        AuditEvent event = event("REMOVE_USER", LocalDateTime.of(2024, 3, 1, 9, 0));
+        event.setUserId(987654L);
+
+        auditLogWriter.write(List.of(event));
+
+        assertEquals(1, count("audit_log_202403"));
+    }
+
+    @Test
+    void prepare_ShouldCreateCurrentAndNextMonthBeforeTheirFirstWrite() {
+        auditPartitions.prepare(LocalDateTime.of(2024, 12, 31, 23, 0));
+
+        assertTrue(tableNames().containsAll(List.of("audit_log_202412", "audit_log_202501")));
+        assertEquals(0, count("audit_log_202501"));
+
+        auditLogWriter.write(List.of(event("CREATE_USER", LocalDateTime.of(2025, 1, 1, 0, 0))));
+
+        assertEquals(1, count("audit_log_202501"));
+    }
+
+    @Test
+    void run_ShouldCreateNextMonthPartitionAhead() {
+        auditMaintenance.run();
+
+        YearMonth next = YearMonth.now().plusMonths(1);
+        assertTrue(tableNames().contains("audit_log_" + next.format(DateTimeFormatter.ofPattern("yyyyMM"))));
+    }
+
+    @Test
+    void applyRetention_ShouldDropPartitionsPastRetention() {
+        auditLogWriter.write(List.of(
+                event("CREATE_USER", LocalDateTime.of(2024, 1, 10, 10, 0)),
+                event("CREATE_USER", LocalDateTime.of(2024, 2, 10, 10, 0)),
+                event("CREATE_USER", LocalDateTime.of(2024, 5, 10, 10, 0))));
+
+        auditMaintenance.applyRetention(LocalDateTime.of(2024, 5, 20, 0, 0));
+
+        // three months of retention in May keep everything that ended after February 1st
+        List<String> tables = tableNames();
+        assertFalse(tables.contains("audit_log_202401"));
+        assertTrue(tables.contains("audit_log_202402"));
+        assertTrue(tables.contains("audit_log_202405"));
+    }
+
+    @Test
+    void compact_ShouldRemoveReplayedEventsFromClosedPartitions() {
+        AuditEvent event = event("CREATE_USER", LocalDateTime.of(2024, 1, 10, 10, 0));
+        AuditEvent current = event("CREATE_USER", LocalDateTime.of(2024, 2, 10, 10, 0));
+        auditLogWriter.write(List.of(event, event("APPROVE_USER", LocalDateTime.of(2024, 1, 11, 10, 0))));
+        auditLogWriter.write(List.of(event, current));
+        auditLogWriter.write(List.of(current));
+
+        auditMaintenance.compact(LocalDateTime.of(2024, 2, 20, 0, 0));
+
+        assertEquals(2, count("audit_log_202401"));
+        // February is still open and is left alone
+        assertEquals(2, count("audit_log_202402"));
+        assertTrue(auditPartitions.list().stream()
+                .filter(partition -> partition.getTableName().equals("audit_log_202401"))
+                .allMatch(AuditPartition::isCompacted));
+    }
+
+    private List<String> tableNames() {
+        return auditPartitions.list().stream().map(AuditPartition::getTableName).collect(Collectors.toList());
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+    }
+
+    private static AuditEvent event(String action, LocalDateTime performedAt) {
+        return new AuditEvent(action, "admin", "{}", performedAt, 1L, "user1");
+    }
+}
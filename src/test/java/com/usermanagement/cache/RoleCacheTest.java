@@ -0,0 +1,111 @@
+package com.usermanagement.cache;
+
+import com.usermanagement.model.Role;
+import com.usermanagement.repository.RoleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RoleCacheTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private RoleCache roleCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(roleCache, "maxSize", 100L);
+        roleCache.init();
+    }
+
+    @Test
+    void refresh_ShouldServeRolesWithoutRepositoryLookups() {
+        Role role = new Role(1L, "ROLE_USER");
+        when(roleRepository.findAll()).thenReturn(List.of(role));
+
+        roleCache.refresh();
+
+        assertEquals(role, roleCache.findByName("ROLE_USER"));
+        assertEquals(role, roleCache.findById(1L));
+        verify(roleRepository, never()).findByName(anyString());
+        verify(roleRepository, never()).findById(anyLong());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "roles.byName").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void findByName_ShouldLoadOnceOnMiss() {
+        Role role = new Role(2L, "ROLE_ADMIN");
+        when(roleRepository.findByName("ROLE_ADMIN")).thenReturn(role);
+
+        assertEquals(role, roleCache.findByName("ROLE_ADMIN"));
+        assertEquals(role, roleCache.findByName("ROLE_ADMIN"));
+        assertEquals(role, roleCache.findById(2L));
+
+        verify(roleRepository, times(1)).findByName("ROLE_ADMIN");
+        verify(roleRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void findByName_ShouldNotCacheMissingRoles() {
+        when(roleRepository.findByName("ROLE_MISSING")).thenReturn(null);
+
+        assertNull(roleCache.findByName("ROLE_MISSING"));
+        assertNull(roleCache.findByName("ROLE_MISSING"));
+
+        verify(roleRepository, times(2)).findByName("ROLE_MISSING");
+    }
+
+    @Test
+    void put_ShouldMakeNewRoleVisible() {
+        Role role = new Role(3L, "ROLE_AUDITOR");
+        roleCache.put(role);
+
+        assertEquals(role, roleCache.findByName("ROLE_AUDITOR"));
+        verify(roleRepository, never()).findByName(anyString());
+    }
+
+    @Test
+    void findById_ShouldLoadFromRepositoryOnMiss() {
+        Role role = new Role(4L, "ROLE_SUPPORT");
+        when(roleRepository.findById(4L)).thenReturn(Optional.of(role));
+
+        assertEquals(role, roleCache.findById(4L));
+        assertEquals(role, roleCache.findByName("ROLE_SUPPORT"));
+        verify(roleRepository, never()).findByName(anyString());
+    }
+
+    @Test
+    void findAllByName_ShouldLoadAllMissesInOneQuery() {
+        Role cached = new Role(1L, "ROLE_USER");
+        Role admin = new Role(2L, "ROLE_ADMIN");
+        Role auditor = new Role(3L, "ROLE_AUDITOR");
+        roleCache.put(cached);
+        when(roleRepository.findByNameIn(anyCollection())).thenReturn(List.of(admin, auditor));
+
+        Map<String, Role> roles = roleCache.findAllByName(Set.of("ROLE_USER", "ROLE_ADMIN", "ROLE_AUDITOR", "ROLE_MISSING"));
+
+        assertEquals(Map.of("ROLE_USER", cached, "ROLE_ADMIN", admin, "ROLE_AUDITOR", auditor), roles);
+        verify(roleRepository, times(1)).findByNameIn(Set.of("ROLE_ADMIN", "ROLE_AUDITOR", "ROLE_MISSING"));
+        verify(roleRepository, never()).findByName(anyString());
+    }
+}
@@ -0,0 +1,138 @@
+package com.usermanagement.cache;
+
+import com.usermanagement.dto.RoleMatch;
+import com.usermanagement.model.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RoleMembershipIndexTest {
+
+    private static final Role ADMIN = new Role(1L, "ROLE_ADMIN");
+    private static final Role USER = new Role(2L, "ROLE_USER");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private RoleMembershipIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        // admins 1 and 2, users 2, 3 and 4
+        long[][] rows = {{1, 1}, {1, 2}, {2, 2}, {2, 3}, {2, 4}};
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (long[] row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong(1)).thenReturn(row[0]);
+                when(rs.getLong(2)).thenReturn(row[1]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        index.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void count_ShouldCombineRolesByMatch() {
+        assertEquals(2, index.count(List.of(1L), RoleMatch.ANY));
+        assertEquals(1, index.count(List.of(1L, 2L), RoleMatch.ALL));
+        assertEquals(4, index.count(List.of(1L, 2L), RoleMatch.ANY));
+    }
+
+    @Test
+    void count_ShouldTreatRoleWithoutMembersAsEmpty() {
+        assertEquals(0, index.count(List.of(9L), RoleMatch.ANY));
+        assertEquals(0, index.count(List.of(1L, 9L), RoleMatch.ALL));
+        assertEquals(2, index.count(List.of(1L, 9L), RoleMatch.ANY));
+    }
+
+    @Test
+    void findIdsAfter_ShouldReturnAscendingIdsAfterCursor() {
+        assertEquals(List.of(1L, 2L), index.findIdsAfter(List.of(1L, 2L), RoleMatch.ANY, 0L, 2));
+        assertEquals(List.of(3L, 4L), index.findIdsAfter(List.of(1L, 2L), RoleMatch.ANY, 2L, 5));
+        assertEquals(List.of(), index.findIdsAfter(List.of(1L, 2L), RoleMatch.ALL, 2L, 5));
+    }
+
+    @Test
+    void findIdsAfter_ShouldNotModifyIndexWhenCombiningRoles() {
+        index.findIdsAfter(List.of(2L, 1L), RoleMatch.ALL, 0L, 5);
+
+        assertEquals(3, index.count(List.of(2L), RoleMatch.ANY));
+    }
+
+    @Test
+    void addAfterCommit_ShouldApplyImmediatelyOutsideTransaction() {
+        index.addAfterCommit(5L, Set.of(ADMIN, USER));
+
+        assertEquals(List.of(2L, 5L), index.findIdsAfter(List.of(1L, 2L), RoleMatch.ALL, 0L, 5));
+    }
+
+    @Test
+    void addAfterCommit_ShouldApplyOnlyOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.addAfterCommit(5L, Set.of(ADMIN));
+        assertEquals(2, index.count(List.of(1L), RoleMatch.ANY));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(3, index.count(List.of(1L), RoleMatch.ANY));
+    }
+
+    @Test
+    void removeAfterCommit_ShouldIgnoreRolledBackTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.removeAfterCommit(List.of(2L));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(4, index.count(List.of(1L, 2L), RoleMatch.ANY));
+    }
+
+    @Test
+    void removeAfterCommit_ShouldRemoveUserFromEveryRole() {
+        index.removeAfterCommit(List.of(2L));
+
+        assertEquals(0, index.count(List.of(1L, 2L), RoleMatch.ALL));
+        assertEquals(List.of(1L, 3L, 4L), index.findIdsAfter(List.of(1L, 2L), RoleMatch.ANY, 0L, 5));
+    }
+
+    @Test
+    void rebuild_ShouldReplacePreviousContent() {
+        index.addAfterCommit(5L, Set.of(ADMIN));
+
+        index.rebuild();
+
+        assertEquals(2, index.count(List.of(1L), RoleMatch.ANY));
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    private static void complete(int status) {
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(), status);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
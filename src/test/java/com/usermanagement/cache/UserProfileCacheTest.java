@@ -0,0 +1,115 @@
+package com.usermanagement.cache;
+
+import com.usermanagement.dto.UserDto;
+import com.usermanagement.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserProfileCacheTest {
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private UserProfileCache userProfileCache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(userProfileCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(userProfileCache, "ttl", Duration.ofMinutes(1));
+        userProfileCache.init();
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndServeFromCache() {
+        UserDto first = userProfileCache.get("jdoe", this::load);
+        UserDto second = userProfileCache.get("jdoe", this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidate_ShouldForceReload() {
+        userProfileCache.get("jdoe", this::load);
+        userProfileCache.invalidate("jdoe");
+        userProfileCache.get("jdoe", this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_ShouldNotCacheFailedLoads() {
+        assertThrows(ResourceNotFoundException.class, () -> userProfileCache.get("ghost", username -> {
+            loads.incrementAndGet();
+            throw new ResourceNotFoundException("User not found: " + username);
+        }));
+        userProfileCache.get("ghost", this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_ShouldShareOneLoadBetweenConcurrentMisses() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<UserDto>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> userProfileCache.get("jdoe", username -> {
+                    loading.countDown();
+                    await(release);
+                    return load(username);
+                })));
+            }
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            release.countDown();
+
+            UserDto expected = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<UserDto> result : results) {
+                assertSame(expected, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private UserDto load(String username) {
+        loads.incrementAndGet();
+        UserDto dto = new UserDto();
+        dto.setUsername(username);
+        return dto;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.usermanagement.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserSetVersionTest {
+
+    private final UserSetVersion userSetVersion = new UserSetVersion();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void advance_ShouldChangeVersionImmediatelyOutsideTransaction() {
+        String before = userSetVersion.current();
+
+        userSetVersion.advance();
+
+        assertNotEquals(before, userSetVersion.current());
+    }
+
+    @Test
+    void advance_ShouldChangeVersionOnlyAfterTransactionCompletes() {
+        String before = userSetVersion.current();
+        TransactionSynchronizationManager.initSynchronization();
+
+        userSetVersion.advance();
+        assertEquals(before, userSetVersion.current());
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_COMMITTED);
+        assertNotEquals(before, userSetVersion.current());
+    }
+
+    @Test
+    void current_ShouldNotRepeatAcrossInstances() throws InterruptedException {
+        String first = userSetVersion.current();
+        Thread.sleep(2);
+
+        assertNotEquals(first, new UserSetVersion().current());
+    }
+}
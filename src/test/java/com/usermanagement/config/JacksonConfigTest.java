@@ -0,0 +1,65 @@
+package com.usermanagement.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usermanagement.dto.UserDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JacksonConfigTest {
+
+    private final JacksonConfig jacksonConfig = new JacksonConfig();
+
+    @Test
+    void objectMapper_ShouldWriteSameJsonAsReflectionMapper() throws Exception {
+        UserDto user = user();
+
+        String expected = Jackson2ObjectMapperBuilder.json().build().writeValueAsString(user);
+
+        assertEquals(expected, jacksonConfig.objectMapper().writeValueAsString(user));
+    }
+
+    @Test
+    void smileConverter_ShouldRoundTripUsers() throws Exception {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        jacksonConfig.extendMessageConverters(converters);
+        ObjectMapper smile = ((MappingJackson2SmileHttpMessageConverter) converters.get(0)).getObjectMapper();
+        UserDto user = user();
+
+        byte[] bytes = smile.writeValueAsBytes(user);
+
+        assertEquals(user, smile.readValue(bytes, UserDto.class));
+    }
+
+    @Test
+    void extendMessageConverters_ShouldAppendSmileAfterJson() {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        converters.add(new MappingJackson2HttpMessageConverter());
+
+        jacksonConfig.extendMessageConverters(converters);
+
+        assertEquals(2, converters.size());
+        assertInstanceOf(MappingJackson2SmileHttpMessageConverter.class, converters.get(1));
+    }
+
+    private static UserDto user() {
+        UserDto user = new UserDto();
+        user.setId(7L);
+        user.setUsername("jdoe");
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setEmail("jdoe@example.com");
+        user.setRoles(Set.of("ROLE_USER"));
+        user.setApproved(true);
+        user.setVersion(2L);
+        return user;
+    }
+}
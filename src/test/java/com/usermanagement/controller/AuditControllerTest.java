@@ -0,0 +1,79 @@
+package com.usermanagement.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usermanagement.dto.AuditLogDto;
+import com.usermanagement.dto.AuditPageDto;
+import com.usermanagement.dto.AuditSearchCriteria;
+import com.usermanagement.service.AuditService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AuditControllerTest {
+
+    @Mock
+    private AuditService auditService;
+
+    @Spy
+    private ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @InjectMocks
+    private AuditController auditController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void searchAuditLog_ShouldReturnPage() {
+        AuditSearchCriteria criteria = new AuditSearchCriteria();
+        AuditPageDto page = new AuditPageDto(List.of(), null, false);
+        when(auditService.searchAuditLog(criteria, "cursor", 20)).thenReturn(page);
+
+        ResponseEntity<AuditPageDto> response = auditController.searchAuditLog(criteria, "cursor", 20);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportAuditLog_ShouldWriteNdjson() throws IOException {
+        AuditSearchCriteria criteria = new AuditSearchCriteria();
+        doAnswer(invocation -> {
+            Consumer<AuditLogDto> consumer = invocation.getArgument(1);
+            consumer.accept(new AuditLogDto(2L, 1L, "jdoe", "APPROVE_USER", "admin", "{}", LocalDateTime.of(2024, 1, 2, 0, 0)));
+            consumer.accept(new AuditLogDto(1L, 1L, "jdoe", "CREATE_USER", "admin", "{}", LocalDateTime.of(2024, 1, 1, 0, 0)));
+            return null;
+        }).when(auditService).exportAuditLog(any(), any(Consumer.class));
+
+        ResponseEntity<StreamingResponseBody> response = auditController.exportAuditLog(criteria);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("APPROVE_USER", objectMapper.readTree(lines[0]).get("action").asText());
+    }
+}
@@ -0,0 +1,77 @@
+package com.usermanagement.controller;
+
+import com.usermanagement.dto.TokenDto;
+import com.usermanagement.exception.AccessDeniedException;
+import com.usermanagement.exception.ValidationException;
+import com.usermanagement.security.TokenStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AuthControllerTest {
+
+    @Mock
+    private TokenStore tokenStore;
+
+    @InjectMocks
+    private AuthController authController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void issueToken_ShouldReturnBearerTokenForPasswordLogin() {
+        Authentication login = UsernamePasswordAuthenticationToken.authenticated("admin", null,
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+        when(tokenStore.issue(login)).thenReturn("abc");
+        when(tokenStore.getTtl()).thenReturn(Duration.ofMinutes(30));
+
+        ResponseEntity<TokenDto> response = authController.issueToken(login);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(new TokenDto("abc", "Bearer", 1800), response.getBody());
+    }
+
+    @Test
+    void issueToken_ShouldRefuseBearerLogin() {
+        assertThrows(AccessDeniedException.class, () -> authController.issueToken(bearer()));
+        verify(tokenStore, never()).issue(any());
+    }
+
+    @Test
+    void revokeToken_ShouldRevokeTheCallersToken() {
+        ResponseEntity<Void> response = authController.revokeToken(bearer());
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        verify(tokenStore).revoke("abc");
+    }
+
+    @Test
+    void revokeToken_ShouldRejectPasswordLogin() {
+        Authentication login = UsernamePasswordAuthenticationToken.authenticated("admin", null, AuthorityUtils.NO_AUTHORITIES);
+
+        assertThrows(ValidationException.class, () -> authController.revokeToken(login));
+        verify(tokenStore, never()).revoke(any());
+    }
+
+    private static Authentication bearer() {
+        return new PreAuthenticatedAuthenticationToken("admin", "abc", AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+    }
+}
@@ -1,25 +1,50 @@
 package com.usermanagement.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usermanagement.dto.BulkImportResultDto;
 import com.usermanagement.dto.CreateUserDto;
+import com.usermanagement.dto.RoleMatch;
+import com.usermanagement.dto.UserCountDto;
 import com.usermanagement.dto.UserDto;
+import com.usermanagement.dto.UserPageDto;
+import com.usermanagement.dto.UserSearchCriteria;
+import com.usermanagement.exception.PreconditionFailedException;
+import com.usermanagement.service.UserBulkService;
 import com.usermanagement.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.AccessDeniedException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 class UserControllerTest {
@@ -27,6 +52,12 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private UserBulkService userBulkService;
+
+    @Spy
+    private ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
     @InjectMocks
     private UserController userController;
 
@@ -54,13 +85,14 @@ class UserControllerTest {
         Long userId = 1L;
         Set<String> roles = new HashSet<>(Arrays.asList("ROLE_USER", "ROLE_ADMIN"));
         UserDto userDto = new UserDto();
-        when(userService.assignRoles(anyLong(), anySet())).thenReturn(userDto);
+        when(userService.assignRoles(anyLong(), anySet(), eq("admin"))).thenReturn(userDto);
 
-        ResponseEntity<UserDto> response = userController.assignRoles(userId, roles);
+        ResponseEntity<UserDto> response = userController.assignRoles(userId, roles,
+                new TestingAuthenticationToken("admin", null));
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(userDto, response.getBody());
-        verify(userService, times(1)).assignRoles(anyLong(), anySet());
+        verify(userService, times(1)).assignRoles(anyLong(), anySet(), eq("admin"));
     }
 
     @Test
@@ -68,13 +100,40 @@ class UserControllerTest {
         Long userId = 1L;
         String approvedBy = "admin";
         UserDto userDto = new UserDto();
-        when(userService.approveUser(anyLong(), anyString())).thenReturn(userDto);
+        when(userService.approveUser(anyLong(), anyString(), isNull())).thenReturn(userDto);
 
-        ResponseEntity<UserDto> response = userController.approveUser(userId, approvedBy);
+        ResponseEntity<UserDto> response = userController.approveUser(userId, approvedBy, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(userDto, response.getBody());
-        verify(userService, times(1)).approveUser(anyLong(), anyString());
+        verify(userService, times(1)).approveUser(anyLong(), anyString(), isNull());
+    }
+
+    @Test
+    void approveUser_ShouldPassIfMatchVersionAndReturnETag() {
+        UserDto userDto = new UserDto();
+        userDto.setId(1L);
+        userDto.setVersion(4L);
+        when(userService.approveUser(1L, "admin", 3L)).thenReturn(userDto);
+
+        ResponseEntity<UserDto> response = userController.approveUser(1L, "admin", "\"1-3\"");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"1-4\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void approveUser_ShouldRejectWeakOrMalformedIfMatch() {
+        assertThrows(PreconditionFailedException.class, () -> userController.approveUser(1L, "admin", "W/\"1-3\""));
+        assertThrows(PreconditionFailedException.class, () -> userController.approveUser(1L, "admin", "\"3\""));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void approveUser_ShouldRejectIfMatchOfAnotherUser() {
+        assertThrows(PreconditionFailedException.class, () -> userController.approveUser(1L, "admin", "\"2-3\""));
+        assertThrows(PreconditionFailedException.class, () -> userController.approveUser(1L, "admin", "\"11-3\""));
+        verifyNoInteractions(userService);
     }
 
     @Test
@@ -83,13 +142,13 @@ class UserControllerTest {
         CreateUserDto updateUserDto = new CreateUserDto();
         updateUserDto.setUpdatedBy("admin");
         UserDto userDto = new UserDto();
-        when(userService.updateUser(anyLong(), any(CreateUserDto.class), anyString())).thenReturn(userDto);
+        when(userService.updateUser(anyLong(), any(CreateUserDto.class), anyString(), eq(7L))).thenReturn(userDto);
 
-        ResponseEntity<UserDto> response = userController.updateUser(userId, updateUserDto);
+        ResponseEntity<UserDto> response = userController.updateUser(userId, updateUserDto, "\"1-7\"");
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(userDto, response.getBody());
-        verify(userService, times(1)).updateUser(anyLong(), any(CreateUserDto.class), anyString());
+        verify(userService, times(1)).updateUser(anyLong(), any(CreateUserDto.class), anyString(), eq(7L));
     }
 
     @Test
@@ -97,12 +156,12 @@ class UserControllerTest {
         Long userId = 1L;
         CreateUserDto updateUserDto = new CreateUserDto();
         updateUserDto.setUpdatedBy("admin");
-        when(userService.updateUser(anyLong(), any(CreateUserDto.class), anyString())).thenReturn(null);
+        when(userService.updateUser(anyLong(), any(CreateUserDto.class), anyString(), isNull())).thenReturn(null);
 
-        ResponseEntity<UserDto> response = userController.updateUser(userId, updateUserDto);
+        ResponseEntity<UserDto> response = userController.updateUser(userId, updateUserDto, null);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-        verify(userService, times(1)).updateUser(anyLong(), any(CreateUserDto.class), anyString());
+        verify(userService, times(1)).updateUser(anyLong(), any(CreateUserDto.class), anyString(), isNull());
     }
 
     @Test
@@ -118,15 +177,23 @@ class UserControllerTest {
     }
 
     @Test
-    void listUsers_ShouldReturnListOfUsers() {
-        List<UserDto> users = Arrays.asList(new UserDto(), new UserDto());
-        when(userService.listUsers()).thenReturn(users);
+    void listUsers_ShouldStreamAllPages() {
+        UserDto first = new UserDto();
+        UserDto second = new UserDto();
+        UserDto third = new UserDto();
+        when(userService.listUsers(any(UserSearchCriteria.class), isNull(), eq(500)))
+                .thenReturn(new UserPageDto(Arrays.asList(first, second), 2L, true));
+        when(userService.listUsers(any(UserSearchCriteria.class), eq(2L), eq(500)))
+                .thenReturn(new UserPageDto(List.of(third), 3L, false));
 
-        ResponseEntity<List<UserDto>> response = userController.listUsers();
+        ResponseEntity<Iterator<UserDto>> response = userController.listUsers(request());
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(users, response.getBody());
-        verify(userService, times(1)).listUsers();
+        verify(userService, never()).listUsers(any(), any(), anyInt());
+        List<UserDto> users = new ArrayList<>();
+        response.getBody().forEachRemaining(users::add);
+        assertEquals(Arrays.asList(first, second, third), users);
+        verify(userService, times(2)).listUsers(any(UserSearchCriteria.class), any(), eq(500));
     }
 
     @Test
@@ -135,10 +202,166 @@ class UserControllerTest {
         UserDto userDto = new UserDto();
         when(userService.getUserProfile(anyString())).thenReturn(userDto);
 
-        ResponseEntity<UserDto> response = userController.viewProfile(username);
+        ResponseEntity<UserDto> response = userController.viewProfile(username, request());
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(userDto, response.getBody());
         verify(userService, times(1)).getUserProfile(anyString());
     }
+
+    @Test
+    void listUsersPage_ShouldReturnPage() {
+        UserSearchCriteria criteria = new UserSearchCriteria();
+        UserPageDto page = new UserPageDto(Arrays.asList(new UserDto(), new UserDto()), 2L, true);
+        when(userService.listUsers(criteria, 0L, 2)).thenReturn(page);
+
+        ResponseEntity<UserPageDto> response = userController.listUsers(criteria, 0L, 2, request());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+        verify(userService, times(1)).listUsers(criteria, 0L, 2);
+    }
+
+    @Test
+    void listUsersPage_ShouldReturnUserSetETag() {
+        UserSearchCriteria criteria = new UserSearchCriteria();
+        when(userService.getUserSetVersion()).thenReturn("abc-7");
+        when(userService.listUsers(criteria, null, 50)).thenReturn(new UserPageDto(List.of(), null, false));
+
+        ResponseEntity<UserPageDto> response = userController.listUsers(criteria, null, 50, request());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("W/\"users-abc-7\"", response.getHeaders().getETag());
+        assertEquals("no-cache, private", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void listUsersPage_ShouldReturnNotModifiedWithoutQueryingWhenETagMatches() {
+        when(userService.getUserSetVersion()).thenReturn("abc-7");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<UserPageDto> response = userController.listUsers(new UserSearchCriteria(), null, 50,
+                request("W/\"users-abc-7\"", servletResponse));
+
+        assertNull(response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+        assertEquals("W/\"users-abc-7\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        verify(userService, never()).listUsers(any(), any(), anyInt());
+    }
+
+    @Test
+    void listUsersByRoles_ShouldReturnPageWithUserSetETag() {
+        UserPageDto page = new UserPageDto(List.of(new UserDto()), 4L, false);
+        when(userService.getUserSetVersion()).thenReturn("abc-7");
+        when(userService.findUsersByRoles(Set.of("ROLE_ADMIN", "ROLE_USER"), RoleMatch.ALL, null, 50)).thenReturn(page);
+
+        ResponseEntity<UserPageDto> response = userController.listUsersByRoles(Set.of("ROLE_ADMIN", "ROLE_USER"),
+                RoleMatch.ALL, null, 50, request());
+
+        assertEquals(page, response.getBody());
+        assertEquals("W/\"users-abc-7\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void listUsersByRoles_ShouldReturnNotModifiedWithoutQueryingWhenETagMatches() {
+        when(userService.getUserSetVersion()).thenReturn("abc-7");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<UserPageDto> response = userController.listUsersByRoles(Set.of("ROLE_USER"), RoleMatch.ANY,
+                null, 50, request("W/\"users-abc-7\"", servletResponse));
+
+        assertNull(response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+        verify(userService, never()).findUsersByRoles(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void countUsersByRoles_ShouldReturnCount() {
+        when(userService.countUsersByRoles(Set.of("ROLE_USER"), RoleMatch.ANY)).thenReturn(3L);
+
+        ResponseEntity<UserCountDto> response = userController.countUsersByRoles(Set.of("ROLE_USER"), RoleMatch.ANY);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3L, response.getBody().getCount());
+    }
+
+    @Test
+    void listUsers_ShouldReturnFullListWhenUserSetChanged() {
+        when(userService.getUserSetVersion()).thenReturn("abc-8");
+        
+        ResponseEntity<Iterator<UserDto>> response = userController.listUsers(request("W/\"users-abc-7\"", new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("W/\"users-abc-8\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void viewProfile_ShouldReturnNotModifiedWhenVersionMatches() {
+        UserDto userDto = new UserDto();
+        userDto.setId(1L);
+        userDto.setVersion(3L);
+        when(userService.getUserProfile("testuser")).thenReturn(userDto);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<UserDto> response = userController.viewProfile("testuser", request("\"1-3\"", servletResponse));
+
+        assertNull(response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+    }
+
+    @Test
+    void viewProfile_ShouldNotMatchTagOfAnotherUserAtSameVersion() {
+        UserDto userDto = new UserDto();
+        userDto.setId(2L);
+        userDto.setVersion(3L);
+        when(userService.getUserProfile("other")).thenReturn(userDto);
+
+        ResponseEntity<UserDto> response = userController.viewProfile("other", request("\"1-3\"", new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"2-3\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void importUsers_ShouldAcceptJsonArray() throws IOException {
+        List<CreateUserDto> imported = importBody("[{\"username\":\"a\"},{\"username\":\"b\"}]");
+
+        assertEquals(2, imported.size());
+        assertEquals("b", imported.get(1).getUsername());
+    }
+
+    @Test
+    void importUsers_ShouldAcceptNdjson() throws IOException {
+        List<CreateUserDto> imported = importBody("{\"username\":\"a\"}\n{\"username\":\"b\"}\n{\"username\":\"c\"}\n");
+
+        assertEquals(3, imported.size());
+        assertEquals("c", imported.get(2).getUsername());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<CreateUserDto> importBody(String body) throws IOException {
+        List<CreateUserDto> imported = new ArrayList<>();
+        BulkImportResultDto result = new BulkImportResultDto();
+        when(userBulkService.importUsers(any())).thenAnswer(invocation -> {
+            invocation.<Iterator<CreateUserDto>>getArgument(0).forEachRemaining(imported::add);
+            return result;
+        });
+
+        ResponseEntity<BulkImportResultDto> response = userController.importUsers(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(result, response.getBody());
+        return imported;
+    }
+
+    private static ServletWebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/api/users"), new MockHttpServletResponse());
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        return new ServletWebRequest(request, response);
+    }
 }
@@ -0,0 +1,105 @@
+package com.usermanagement.mapper;
+
+import com.usermanagement.dto.CreateUserDto;
+import com.usermanagement.dto.UserDto;
+import com.usermanagement.model.Role;
+import com.usermanagement.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserMapperTest {
+
+    private final UserMapper userMapper = new UserMapperImpl(new RoleNameSets());
+
+    @Test
+    void toDto_ShouldCopyFieldsAndRoleNames() {
+        User user = user(1L, "alice", new Role(1L, "ROLE_USER"), new Role(2L, "ROLE_ADMIN"));
+        user.setVersion(3L);
+
+        UserDto dto = userMapper.toDto(user);
+
+        assertEquals(1L, dto.getId());
+        assertEquals("alice", dto.getUsername());
+        assertEquals("First alice", dto.getFirstName());
+        assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"), dto.getRoles());
+        assertFalse(dto.getApproved());
+        assertEquals(3L, dto.getVersion());
+    }
+
+    @Test
+    void toDto_ShouldShareRoleNameSetsBetweenUsersWithTheSameRoles() {
+        UserDto alice = userMapper.toDto(user(1L, "alice", new Role(1L, "ROLE_USER"), new Role(2L, "ROLE_ADMIN")));
+        UserDto bob = userMapper.toDto(user(2L, "bob", new Role(2L, "ROLE_ADMIN"), new Role(1L, "ROLE_USER")));
+        UserDto carol = userMapper.toDto(user(3L, "carol", new Role(1L, "ROLE_USER")));
+
+        assertSame(alice.getRoles(), bob.getRoles());
+        assertNotSame(alice.getRoles(), carol.getRoles());
+        assertSame(alice.getRoles().stream().filter("ROLE_USER"::equals).findFirst().orElseThrow(),
+                carol.getRoles().iterator().next());
+        assertThrows(UnsupportedOperationException.class, () -> alice.getRoles().add("ROLE_AUDITOR"));
+    }
+
+    @Test
+    void toDto_ShouldNotShareSetsAfterRoleIsRenamed() {
+        Role role = new Role(1L, "ROLE_USER");
+        UserDto before = userMapper.toDto(user(1L, "alice", role));
+
+        role.setName("ROLE_MEMBER");
+        UserDto after = userMapper.toDto(user(2L, "bob", role));
+
+        assertEquals(Set.of("ROLE_USER"), before.getRoles());
+        assertEquals(Set.of("ROLE_MEMBER"), after.getRoles());
+    }
+
+    @Test
+    void toEntity_ShouldLeaveServerManagedFieldsAlone() {
+        CreateUserDto dto = new CreateUserDto();
+        dto.setUsername("alice");
+        dto.setEmail("alice@example.com");
+        dto.setCreatedBy("admin");
+        dto.setUpdatedBy("mallory");
+        dto.setRoles(Set.of("ROLE_ADMIN"));
+
+        User user = userMapper.toEntity(dto);
+
+        assertNull(user.getId());
+        assertEquals("alice", user.getUsername());
+        assertEquals("admin", user.getCreatedBy());
+        assertNull(user.getUpdatedBy());
+        assertTrue(user.getRoles().isEmpty());
+        assertFalse(user.getApproved());
+    }
+
+    @Test
+    void updateProfile_ShouldOnlyTouchEditableFields() {
+        User user = user(1L, "alice", new Role(1L, "ROLE_USER"));
+        CreateUserDto dto = new CreateUserDto();
+        dto.setUsername("mallory");
+        dto.setFirstName("Alice");
+        dto.setLastName("Liddell");
+        dto.setEmail("alice@example.com");
+        dto.setCreatedBy("mallory");
+
+        userMapper.updateProfile(dto, user);
+
+        assertEquals("alice", user.getUsername());
+        assertEquals("admin", user.getCreatedBy());
+        assertEquals("Alice", user.getFirstName());
+        assertEquals("Liddell", user.getLastName());
+        assertEquals("alice@example.com", user.getEmail());
+    }
+
+    private static User user(Long id, String username, Role... roles) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setFirstName("First " + username);
+        user.setCreatedBy("admin");
+        user.setRoles(new HashSet<>(Set.of(roles)));
+        return user;
+    }
+}
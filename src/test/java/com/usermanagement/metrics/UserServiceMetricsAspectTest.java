@@ -0,0 +1,69 @@
+package com.usermanagement.metrics;
+
+import com.usermanagement.exception.ResourceNotFoundException;
+import com.usermanagement.service.UserService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserServiceMetricsAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UserService userService;
+
+    private UserService proxy;
+
+    @BeforeEach
+    void setUp() {
+        UserServiceMetricsAspect aspect = new UserServiceMetricsAspect();
+        ReflectionTestUtils.setField(aspect, "meterRegistry", meterRegistry);
+        userService = mock(UserService.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(userService);
+        factory.addAspect(aspect);
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    void time_ShouldTagOperationAndSuccess() {
+        proxy.getUserProfile("alice");
+        proxy.getUserProfile("bob");
+
+        assertEquals(2, timer("getUserProfile", "success").count());
+    }
+
+    @Test
+    void time_ShouldShareOneTimerAcrossOverloads() {
+        proxy.approveUser(1L, "admin");
+        proxy.approveUser(1L, "admin", 3L);
+
+        assertEquals(2, timer("approveUser", "success").count());
+    }
+
+    @Test
+    void time_ShouldTagFailureOutcomeAndRethrow() {
+        when(userService.getUserProfile("ghost")).thenThrow(new ResourceNotFoundException("User not found: ghost"));
+        when(userService.approveUser(1L, "admin")).thenThrow(new ObjectOptimisticLockingFailureException(Object.class, 1L));
+
+        assertThrows(ResourceNotFoundException.class, () -> proxy.getUserProfile("ghost"));
+        assertThrows(OptimisticLockingFailureException.class, () -> proxy.approveUser(1L, "admin"));
+
+        assertEquals(1, timer("getUserProfile", "not_found").count());
+        assertEquals(1, timer("approveUser", "conflict").count());
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return meterRegistry.get(UserServiceMetricsAspect.TIMER)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .timer();
+    }
+}
@@ -0,0 +1,46 @@
+package com.usermanagement.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LegacySchemaMigrationTest {
+
+    @Test
+    void migrate_ShouldAdoptSchemaLeftByAutoDdl() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:legacy;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        // as Hibernate ddl-auto=update created it, down to the generated constraint names
+        jdbc.execute("create table roles (id bigint generated by default as identity, name varchar(255),"
+                + " primary key (id), constraint UKOFX66KERUAPI6VYQPV6F2OR37 unique (name))");
+        jdbc.execute("create table users (approved boolean, created_at timestamp(6), id bigint generated by default as identity,"
+                + " created_by varchar(255), email varchar(255), first_name varchar(255), last_name varchar(255),"
+                + " updated_by varchar(255), username varchar(255), primary key (id))");
+        jdbc.execute("create table user_roles (role_id bigint not null, user_id bigint not null, primary key (role_id, user_id),"
+                + " constraint FKH8CIRAMU9CC9Q3QCQIV4UE8A6 foreign key (role_id) references roles,"
+                + " constraint FKHFH9DX7W3UBF1CO1VDEV94G3F foreign key (user_id) references users)");
+        jdbc.execute("create table audit_logs (id bigint generated by default as identity, performed_at timestamp(6),"
+                + " user_id bigint, action varchar(255), details varchar(255), performed_by varchar(255), primary key (id),"
+                + " constraint FKJS4IIMVE3Y0XSSBTVE5YSYEF0 foreign key (user_id) references users)");
+        jdbc.update("insert into users (username, created_by, approved) values ('admin', 'admin', true), ('alice', 'admin', false)");
+        jdbc.update("insert into audit_logs (user_id, action, performed_by, performed_at) values (2, 'CREATE_USER', 'admin', current_timestamp)");
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        assertEquals("NO", jdbc.queryForObject(
+                "select is_identity from information_schema.columns where table_name = 'USERS' and column_name = 'ID'", String.class));
+        // the pooled optimizer takes the 50 ids up to the sequence value, all of them past the existing rows
+        assertTrue(jdbc.queryForObject("select next value for users_seq", Long.class) - 49 > 2);
+        assertTrue(jdbc.queryForObject("select next value for audit_log_seq", Long.class) > 1);
+        assertEquals("alice", jdbc.queryForObject("select username from audit_logs where user_id = 2", String.class));
+        assertEquals(0L, jdbc.queryForObject("select version from users where id = 2", Long.class));
+    }
+}
@@ -0,0 +1,103 @@
+package com.usermanagement.repository;
+
+import com.usermanagement.model.Role;
+import com.usermanagement.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+// the second-level cache is only populated by committed transactions, so the test commits and cleans up itself
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RoleRepositoryTest {
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        List<Role> roles = roleRepository.saveAll(List.of(new Role(null, "ROLE_CACHED_USER"), new Role(null, "ROLE_CACHED_ADMIN")));
+        User user = new User();
+        user.setUsername("cached");
+        user.setCreatedBy("admin");
+        user.getRoles().addAll(roles);
+        userId = userRepository.save(user).getId();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> userRepository.deleteUserById(userId));
+        roleRepository.deleteAll(roleRepository.findByNameIn(List.of("ROLE_CACHED_USER", "ROLE_CACHED_ADMIN")));
+    }
+
+    @Test
+    void findByName_ShouldBeServedFromQueryCacheAfterWarmup() {
+        Role warm = roleRepository.findByName("ROLE_CACHED_USER");
+        long statementsAfterWarmup = statistics.getPrepareStatementCount();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(warm.getId(), roleRepository.findByName("ROLE_CACHED_USER").getId());
+        }
+
+        assertEquals(statementsAfterWarmup, statistics.getPrepareStatementCount());
+        assertEquals(10, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void findByName_ShouldSeeRolesWrittenAfterCaching() {
+        assertNull(roleRepository.findByName("ROLE_CACHED_AUDITOR"));
+
+        Role auditor = roleRepository.save(new Role(null, "ROLE_CACHED_AUDITOR"));
+        try {
+            assertEquals(auditor.getId(), roleRepository.findByName("ROLE_CACHED_AUDITOR").getId());
+        } finally {
+            roleRepository.delete(auditor);
+        }
+    }
+
+    @Test
+    void roles_ShouldStayCachedAcrossBulkStatementsOnUsers() {
+        Long roleId = roleRepository.findByName("ROLE_CACHED_USER").getId();
+        transactionTemplate.executeWithoutResult(status -> roleRepository.findById(roleId));
+        transactionTemplate.executeWithoutResult(status -> userRepository.approve(userId, null));
+        long statementsAfterApprove = statistics.getPrepareStatementCount();
+        long hitsAfterApprove = statistics.getDomainDataRegionStatistics("roles").getHitCount();
+
+        assertTrue(transactionTemplate.execute(status -> roleRepository.findById(roleId)).isPresent());
+
+        assertEquals(statementsAfterApprove, statistics.getPrepareStatementCount());
+        assertEquals(hitsAfterApprove + 1, statistics.getDomainDataRegionStatistics("roles").getHitCount());
+    }
+}
@@ -0,0 +1,175 @@
+package com.usermanagement.repository;
+
+import com.usermanagement.model.Role;
+import com.usermanagement.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserRepositoryTest {
+
+    private static final int USER_COUNT = 10_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Role userRole = new Role(null, "ROLE_USER");
+        Role adminRole = new Role(null, "ROLE_ADMIN");
+        entityManager.persist(userRole);
+        entityManager.persist(adminRole);
+
+        for (int i = 0; i < USER_COUNT; i++) {
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setCreatedBy(i % 2 == 0 ? "admin" : "hr");
+            user.setApproved(i % 3 == 0);
+            user.getRoles().add(userRole);
+            if (i % 10 == 0) {
+                user.getRoles().add(adminRole);
+            }
+            entityManager.persist(user);
+            if (i % 500 == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void streamAfter_ShouldStreamTenThousandUsersInOneStatement() {
+        long roleCount;
+        try (Stream<User> users = userRepository.streamAfter(0L, null, null, null)) {
+            roleCount = users.mapToLong(user -> user.getRoles().size()).sum();
+        }
+
+        assertEquals(USER_COUNT + USER_COUNT / 10, roleCount);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void keysetPage_ShouldUseTwoStatements() {
+        List<Long> ids = userRepository.findIdsAfter(0L, null, null, null, Limit.of(100));
+        List<User> users = userRepository.findAllWithRolesByIdIn(ids);
+        users.forEach(user -> user.getRoles().size());
+
+        assertEquals(100, users.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findIdsAfter_ShouldApplyFilters() {
+        List<Long> ids = userRepository.findIdsAfter(0L, true, "admin", "ROLE_ADMIN", Limit.of(USER_COUNT));
+
+        // every 30th user is approved, created by admin and holds ROLE_ADMIN
+        assertEquals(USER_COUNT / 30 + 1, ids.size());
+        Set<String> creators = userRepository.findAllWithRolesByIdIn(ids).stream()
+                .map(User::getCreatedBy)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("admin"), creators);
+    }
+
+    @Test
+    void findByUsername_ShouldFetchRolesInOneStatement() {
+        User user = userRepository.findByUsername("user10");
+
+        assertTrue(Hibernate.isInitialized(user.getRoles()));
+        assertEquals(2, user.getRoles().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void saveAndFlush_ShouldRejectDuplicateUsername() {
+        User duplicate = new User();
+        duplicate.setUsername("user10");
+        duplicate.setCreatedBy("admin");
+
+        assertThrows(DataIntegrityViolationException.class, () -> userRepository.saveAndFlush(duplicate));
+    }
+
+    @Test
+    void approve_ShouldUpdateOnlyOnceInOneStatement() {
+        Long id = userRepository.findByUsername("user1").getId();
+        statistics.clear();
+
+        assertEquals(1, userRepository.approve(id, null));
+        assertEquals(0, userRepository.approve(id, null));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        UserRepository.ApprovalState state = userRepository.findApprovalStateById(id).orElseThrow();
+        assertTrue(state.getApproved());
+        assertEquals(1L, state.getVersion());
+    }
+
+    @Test
+    void approve_ShouldRespectExpectedVersion() {
+        Long id = userRepository.findByUsername("user1").getId();
+
+        assertEquals(0, userRepository.approve(id, 7L));
+        assertEquals(1, userRepository.approve(id, 0L));
+    }
+
+    @Test
+    void deleteUserById_ShouldRemoveUserAndRoleLinksWithoutLoadingIt() {
+        Long id = userRepository.findByUsername("user10").getId();
+        entityManager.clear();
+        statistics.clear();
+
+        assertEquals(1, userRepository.deleteUserById(id));
+
+        // one delete for the user_roles rows, one for the user
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertFalse(userRepository.existsByUsername("user10"));
+    }
+
+    @Test
+    void bulkApproveAndDelete_ShouldUseOneStatementPerStep() {
+        List<Long> ids = userRepository.findIdsAfter(0L, false, null, null, Limit.of(100));
+        entityManager.clear();
+        statistics.clear();
+
+        List<UserRepository.UserRow> rows = userRepository.lockAllByIdIn(ids);
+        int approved = userRepository.approveAllByIdIn(ids);
+
+        assertEquals(100, rows.size());
+        assertEquals(100, approved);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(userRepository.findIdsAfter(0L, false, null, null, Limit.of(USER_COUNT)).stream().noneMatch(ids::contains));
+
+        statistics.clear();
+        assertEquals(100, userRepository.deleteUsersByIdIn(ids));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,72 @@
+package com.usermanagement.retry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryOnConflictAspectTest {
+
+    private final RetryOnConflictAspect aspect = new RetryOnConflictAspect();
+
+    private Updater updater;
+
+    private Updater proxy;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(aspect, "maxAttempts", 3);
+        ReflectionTestUtils.setField(aspect, "backoffMs", 1L);
+        updater = new Updater();
+        AspectJProxyFactory factory = new AspectJProxyFactory(updater);
+        factory.addAspect(aspect);
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    void retry_ShouldRerunUntilTheUpdateWins() {
+        updater.conflicts = 2;
+
+        assertEquals("done", proxy.update());
+        assertEquals(3, updater.calls.get());
+    }
+
+    @Test
+    void retry_ShouldGiveUpAfterMaxAttempts() {
+        updater.conflicts = 5;
+
+        assertThrows(OptimisticLockingFailureException.class, proxy::update);
+        assertEquals(3, updater.calls.get());
+    }
+
+    @Test
+    void retry_ShouldNotRetryOtherFailures() {
+        assertThrows(IllegalStateException.class, proxy::fail);
+        assertEquals(1, updater.calls.get());
+    }
+
+    static class Updater {
+        private final AtomicInteger calls = new AtomicInteger();
+        private int conflicts;
+
+        @RetryOnConflict
+        public String update() {
+            if (calls.incrementAndGet() <= conflicts) {
+                throw new ObjectOptimisticLockingFailureException(Object.class, 1L);
+            }
+            return "done";
+        }
+
+        @RetryOnConflict
+        public String fail() {
+            calls.incrementAndGet();
+            throw new IllegalStateException("not a conflict");
+        }
+    }
+}
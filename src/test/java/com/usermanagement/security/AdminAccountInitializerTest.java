@@ -0,0 +1,97 @@
+package com.usermanagement.security;
+
+import com.usermanagement.model.Role;
+import com.usermanagement.model.User;
+import com.usermanagement.repository.RoleRepository;
+import com.usermanagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AdminAccountInitializerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @InjectMocks
+    private AdminAccountInitializer initializer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(initializer, "username", "admin");
+        ReflectionTestUtils.setField(initializer, "password", "secret");
+    }
+
+    @Test
+    void run_ShouldCreateApprovedAdminWithHashedPassword() {
+        Role role = new Role(1L, "ADMIN");
+        when(roleRepository.findByName("ADMIN")).thenReturn(role);
+        when(passwordEncoder.encode("secret")).thenReturn("hashed");
+
+        initializer.run(null);
+
+        verify(userRepository).save(argThat(user -> user.getUsername().equals("admin")
+                && user.getPasswordHash().equals("hashed")
+                && user.getApproved()
+                && user.getRoles().contains(role)));
+        verify(roleRepository, never()).save(any());
+    }
+
+    @Test
+    void run_ShouldCreateUnprefixedAdminRoleWhenMissing() {
+        when(roleRepository.save(argThat(role -> role.getName().equals("ADMIN")))).thenReturn(new Role(1L, "ADMIN"));
+        when(passwordEncoder.encode("secret")).thenReturn("hashed");
+
+        initializer.run(null);
+
+        verify(roleRepository, never()).findByName("ROLE_ADMIN");
+        verify(userRepository).save(argThat(user -> user.getRoles().stream().map(Role::getName).toList().equals(List.of("ADMIN"))));
+    }
+
+    @Test
+    void run_ShouldLeaveExistingAdminAlone() {
+        User admin = new User();
+        admin.setUsername("admin");
+        admin.setPasswordHash("existing");
+        when(userRepository.findByUsername("admin")).thenReturn(admin);
+
+        initializer.run(null);
+
+        verify(userRepository, never()).save(any(User.class));
+        verifyNoInteractions(passwordEncoder);
+        assertEquals("existing", admin.getPasswordHash());
+    }
+
+    @Test
+    void run_ShouldSetPasswordOnExistingAdminWithoutOne() {
+        Role role = new Role(1L, "ADMIN");
+        User admin = new User();
+        admin.setUsername("admin");
+        when(userRepository.findByUsername("admin")).thenReturn(admin);
+        when(roleRepository.findByName("ADMIN")).thenReturn(role);
+        when(passwordEncoder.encode("secret")).thenReturn("hashed");
+
+        initializer.run(null);
+
+        verify(userRepository).save(admin);
+        assertEquals("hashed", admin.getPasswordHash());
+        assertTrue(admin.getRoles().contains(role));
+    }
+}
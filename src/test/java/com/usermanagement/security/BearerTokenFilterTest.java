@@ -0,0 +1,129 @@
+package com.usermanagement.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BearerTokenFilterTest {
+
+    @Mock
+    private TokenStore tokenStore;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private BearerTokenFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        filter = new BearerTokenFilter(tokenStore, userDetailsService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_ShouldAuthenticateKnownTokenWithCurrentAuthorities() throws Exception {
+        when(tokenStore.resolve("abc")).thenReturn(new PreAuthenticatedAuthenticationToken("admin", "abc",
+                AuthorityUtils.createAuthorityList("ROLE_USER")));
+        when(userDetailsService.loadUserByUsername("admin")).thenReturn(User.withUsername("admin")
+                .password("hash").roles("USER", "ADMIN").build());
+        MockFilterChain chain = new MockFilterChain();
+        Authentication[] seen = new Authentication[1];
+
+        filter.doFilter(request("Bearer abc"), new MockHttpServletResponse(), (request, response) -> {
+            seen[0] = SecurityContextHolder.getContext().getAuthentication();
+            chain.doFilter(request, response);
+        });
+
+        assertTrue(seen[0].isAuthenticated());
+        assertEquals("admin", seen[0].getName());
+        assertEquals("abc", seen[0].getCredentials());
+        assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"), AuthorityUtils.authorityListToSet(seen[0].getAuthorities()));
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void doFilter_ShouldRevokeTokenOfRemovedUser() throws Exception {
+        when(tokenStore.resolve("abc")).thenReturn(new PreAuthenticatedAuthenticationToken("gone", "abc",
+                AuthorityUtils.NO_AUTHORITIES));
+        when(userDetailsService.loadUserByUsername("gone")).thenThrow(new UsernameNotFoundException("User not found: gone"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("Bearer abc"), response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest());
+        verify(tokenStore).revoke("abc");
+    }
+
+    @Test
+    void doFilter_ShouldRevokeTokenOfDisabledUser() throws Exception {
+        when(tokenStore.resolve("abc")).thenReturn(new PreAuthenticatedAuthenticationToken("locked", "abc",
+                AuthorityUtils.createAuthorityList("ROLE_USER")));
+        when(userDetailsService.loadUserByUsername("locked")).thenReturn(User.withUsername("locked")
+                .password("hash").roles("USER").disabled(true).build());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("Bearer abc"), response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertEquals("Bearer error=\"invalid_token\"", response.getHeader(HttpHeaders.WWW_AUTHENTICATE));
+        assertNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(tokenStore).revoke("abc");
+    }
+
+    @Test
+    void doFilter_ShouldRejectUnknownTokenWithoutCallingChain() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("bearer expired"), response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertEquals("Bearer error=\"invalid_token\"", response.getHeader(HttpHeaders.WWW_AUTHENTICATE));
+        assertNull(chain.getRequest());
+        verify(tokenStore).resolve("expired");
+    }
+
+    @Test
+    void doFilter_ShouldPassOtherSchemesThrough() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("Basic YWRtaW46YWRtaW5wYXNz"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        verifyNoInteractions(tokenStore, userDetailsService);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private static MockHttpServletRequest request(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        return request;
+    }
+}
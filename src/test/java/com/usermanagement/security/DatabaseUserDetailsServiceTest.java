@@ -0,0 +1,105 @@
+package com.usermanagement.security;
+
+import com.usermanagement.model.Role;
+import com.usermanagement.model.User;
+import com.usermanagement.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DatabaseUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private DatabaseUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(userDetailsService, "maxSize", 100L);
+        ReflectionTestUtils.setField(userDetailsService, "ttl", Duration.ofMinutes(10));
+        userDetailsService.init();
+    }
+
+    @Test
+    void loadUserByUsername_ShouldMapRolesToAuthoritiesAndQueryOnce() {
+        when(userRepository.findByUsername("jdoe")).thenReturn(user("jdoe", "hash", "ROLE_ADMIN", "AUDITOR"));
+
+        UserDetails first = userDetailsService.loadUserByUsername("jdoe");
+        UserDetails second = userDetailsService.loadUserByUsername("jdoe");
+
+        assertEquals("hash", second.getPassword());
+        assertTrue(second.isEnabled());
+        assertEquals(Set.of("ROLE_ADMIN", "ROLE_AUDITOR"), AuthorityUtils.authorityListToSet(second.getAuthorities()));
+        assertNotSame(first, second);
+        verify(userRepository, times(1)).findByUsername("jdoe");
+    }
+
+    @Test
+    void loadUserByUsername_ShouldSurviveCredentialErasure() {
+        when(userRepository.findByUsername("jdoe")).thenReturn(user("jdoe", "hash"));
+
+        ((CredentialsContainer) userDetailsService.loadUserByUsername("jdoe")).eraseCredentials();
+
+        assertEquals("hash", userDetailsService.loadUserByUsername("jdoe").getPassword());
+    }
+
+    @Test
+    void loadUserByUsername_ShouldDisableUsersWithoutPassword() {
+        when(userRepository.findByUsername("jdoe")).thenReturn(user("jdoe", null));
+
+        assertFalse(userDetailsService.loadUserByUsername("jdoe").isEnabled());
+    }
+
+    @Test
+    void loadUserByUsername_ShouldNotCacheUnknownUsers() {
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        when(userRepository.findByUsername("ghost")).thenReturn(user("ghost", "hash"));
+
+        assertEquals("ghost", userDetailsService.loadUserByUsername("ghost").getUsername());
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+
+    @Test
+    void invalidate_ShouldReloadAuthorities() {
+        when(userRepository.findByUsername("jdoe")).thenReturn(user("jdoe", "hash", "ROLE_USER"),
+                user("jdoe", "hash", "ROLE_USER", "ROLE_ADMIN"));
+        userDetailsService.loadUserByUsername("jdoe");
+
+        userDetailsService.invalidate("jdoe");
+
+        assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"),
+                AuthorityUtils.authorityListToSet(userDetailsService.loadUserByUsername("jdoe").getAuthorities()));
+    }
+
+    private static User user(String username, String passwordHash, String... roles) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPasswordHash(passwordHash);
+        for (String role : roles) {
+            user.getRoles().add(new Role(null, role));
+        }
+        return user;
+    }
+}
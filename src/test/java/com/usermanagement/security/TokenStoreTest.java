@@ -0,0 +1,71 @@
+package com.usermanagement.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenStoreTest {
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private TokenStore tokenStore;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(tokenStore, "ttl", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(tokenStore, "maxSize", 100L);
+        tokenStore.init();
+    }
+
+    @Test
+    void issue_ShouldResolveToPrincipalAndAuthoritiesWithoutPassword() {
+        String token = tokenStore.issue(login());
+
+        Authentication resolved = tokenStore.resolve(token);
+
+        assertNotNull(resolved);
+        assertTrue(resolved.isAuthenticated());
+        assertEquals("admin", resolved.getName());
+        assertEquals(AuthorityUtils.createAuthorityList("ROLE_ADMIN"), resolved.getAuthorities());
+        assertEquals(token, resolved.getCredentials());
+    }
+
+    @Test
+    void issue_ShouldReturnDistinctUrlSafeTokens() {
+        String first = tokenStore.issue(login());
+        String second = tokenStore.issue(login());
+
+        assertNotEquals(first, second);
+        assertEquals(43, first.length());
+        assertTrue(first.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void resolve_ShouldReturnNullForUnknownOrRevokedTokens() {
+        String token = tokenStore.issue(login());
+        tokenStore.revoke(token);
+
+        assertNull(tokenStore.resolve(token));
+        assertNull(tokenStore.resolve("not-a-token"));
+    }
+
+    private static Authentication login() {
+        return UsernamePasswordAuthenticationToken.authenticated("admin", null,
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.usermanagement.service;
+
+import com.usermanagement.audit.AuditLogReader;
+import com.usermanagement.dto.AuditLogDto;
+import com.usermanagement.dto.AuditPageDto;
+import com.usermanagement.dto.AuditSearchCriteria;
+import com.usermanagement.exception.ValidationException;
+import com.usermanagement.service.impl.AuditServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AuditServiceImplTest {
+
+    @Mock
+    private AuditLogReader auditLogReader;
+
+    @InjectMocks
+    private AuditServiceImpl auditService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void searchAuditLog_ShouldReturnPageWithCursor() {
+        AuditSearchCriteria criteria = new AuditSearchCriteria();
+        LocalDateTime performedAt = LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123456000);
+        when(auditLogReader.findPage(criteria, null, null, 3)).thenReturn(List.of(
+                entry(9L, performedAt.plusMinutes(1)), entry(7L, performedAt), entry(5L, performedAt)));
+
+        AuditPageDto page = auditService.searchAuditLog(criteria, null, 2);
+
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.isHasNext());
+        assertEquals("2024-05-01T10:15:30.123456_7", page.getNextCursor());
+    }
+
+    @Test
+    void searchAuditLog_ShouldResumeAfterCursor() {
+        AuditSearchCriteria criteria = new AuditSearchCriteria();
+        when(auditLogReader.findPage(any(), any(), any(), eq(51))).thenReturn(List.of());
+
+        AuditPageDto page = auditService.searchAuditLog(criteria, "2024-05-01T10:15:30.123456_7", 50);
+
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+        verify(auditLogReader).findPage(criteria, LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123456000), 7L, 51);
+    }
+
+    @Test
+    void searchAuditLog_ShouldRejectInvalidCursor() {
+        assertThrows(ValidationException.class,
+                () -> auditService.searchAuditLog(new AuditSearchCriteria(), "not-a-cursor", 50));
+        verifyNoInteractions(auditLogReader);
+    }
+
+    @Test
+    void searchAuditLog_ShouldRejectEmptyRange() {
+        AuditSearchCriteria criteria = new AuditSearchCriteria();
+        criteria.setFrom(LocalDateTime.of(2024, 2, 1, 0, 0));
+        criteria.setTo(LocalDateTime.of(2024, 1, 1, 0, 0));
+
+        assertThrows(ValidationException.class, () -> auditService.searchAuditLog(criteria, null, 50));
+        verifyNoInteractions(auditLogReader);
+    }
+
+    private static AuditLogDto entry(Long id, LocalDateTime performedAt) {
+        return new AuditLogDto(id, 1L, "jdoe", "CREATE_USER", "admin", "{}", performedAt);
+    }
+}
@@ -0,0 +1,332 @@
+package com.usermanagement.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.usermanagement.audit.AuditEvent;
+import com.usermanagement.audit.AuditSink;
+import com.usermanagement.cache.RoleCache;
+import com.usermanagement.cache.RoleMembershipIndex;
+import com.usermanagement.cache.UserProfileCache;
+import com.usermanagement.cache.UserSetVersion;
+import com.usermanagement.dto.BulkActionOutcomeDto;
+import com.usermanagement.dto.BulkActionResultDto;
+import com.usermanagement.dto.BulkImportResultDto;
+import com.usermanagement.dto.BulkUserResultDto;
+import com.usermanagement.dto.BulkUserSelectionDto;
+import com.usermanagement.dto.CreateUserDto;
+import com.usermanagement.dto.UserSearchCriteria;
+import com.usermanagement.exception.ResourceNotFoundException;
+import com.usermanagement.exception.ValidationException;
+import com.usermanagement.mapper.RoleNameSets;
+import com.usermanagement.mapper.UserMapper;
+import com.usermanagement.mapper.UserMapperImpl;
+import com.usermanagement.model.Role;
+import com.usermanagement.model.User;
+import com.usermanagement.repository.UserRepository;
+import com.usermanagement.security.DatabaseUserDetailsService;
+import com.usermanagement.service.impl.UserBulkServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserBulkServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RoleCache roleCache;
+
+    @Mock
+    private UserProfileCache userProfileCache;
+
+    @Mock
+    private UserSetVersion userSetVersion;
+
+    @Mock
+    private RoleMembershipIndex roleMembershipIndex;
+
+    @Mock
+    private DatabaseUserDetailsService userDetailsService;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private AuditSink auditSink;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private UserMapper userMapper = new UserMapperImpl(new RoleNameSets());
+
+    @InjectMocks
+    private UserBulkServiceImpl userBulkService;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(userBulkService, "chunkSize", 2);
+        ReflectionTestUtils.invokeMethod(userBulkService, "init");
+
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        when(roleCache.findAllByName(anyCollection())).thenReturn(Map.of("ROLE_USER", new Role(1L, "ROLE_USER")));
+        when(userRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            List<User> saved = new ArrayList<>();
+            invocation.<Iterable<User>>getArgument(0).forEach(user -> {
+                user.setId(ids.incrementAndGet());
+                saved.add(user);
+            });
+            return saved;
+        });
+    }
+
+    @Test
+    void importUsers_ShouldSaveEachChunkWithOneSaveAll() {
+        List<CreateUserDto> users = List.of(user("a"), user("b"), user("c"));
+
+        BulkImportResultDto result = userBulkService.importUsers(users.iterator());
+
+        assertEquals(3, result.getTotal());
+        assertEquals(3, result.getCreated());
+        assertEquals(0, result.getFailed());
+        assertEquals(List.of(0, 1, 2), result.getResults().stream().map(BulkUserResultDto::getIndex).toList());
+        assertEquals("c", result.getResults().get(2).getUsername());
+        verify(userRepository, times(2)).saveAll(anyIterable());
+        verify(userRepository, times(2)).findExistingUsernames(anyCollection());
+        verify(auditSink, times(1)).recordAll(argThat(events -> events.size() == 2));
+        verify(auditSink, times(1)).recordAll(argThat(events -> events.size() == 1));
+        verify(auditSink, times(2)).recordAll(argThat(events -> events.stream()
+                .allMatch(event -> "hr-sync".equals(event.getPerformedBy()))));
+        verify(auditSink, never()).record(any(AuditEvent.class));
+        // each chunk leaves the request's persistence context empty for the next one
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void importUsers_ShouldReportUnreadableRowsAndKeepReading() throws Exception {
+        String ndjson = """
+                {"username":"a","createdBy":"admin"}
+                {"username":"b","createdBy":"admin","roles":{"not":"a list"}}
+                {"username":"c","createdBy":"admin"}
+                {"username":"d","createdBy":"admin"}
+                """;
+        BulkImportResultDto result;
+        try (MappingIterator<CreateUserDto> users = Jackson2ObjectMapperBuilder.json().build()
+                .readerFor(CreateUserDto.class).readValues(ndjson)) {
+            result = userBulkService.importUsers(users);
+        }
+
+        assertEquals(4, result.getTotal());
+        assertEquals(3, result.getCreated());
+        assertEquals(List.of(0, 1, 2, 3), result.getResults().stream().map(BulkUserResultDto::getIndex).toList());
+        assertEquals(BulkUserResultDto.Status.FAILED, result.getResults().get(1).getStatus());
+        assertTrue(result.getResults().get(1).getError().startsWith("Unreadable row: "));
+        assertEquals(List.of("a", "c", "d"), result.getResults().stream()
+                .filter(row -> row.getStatus() == BulkUserResultDto.Status.CREATED)
+                .map(BulkUserResultDto::getUsername)
+                .toList());
+    }
+
+    @Test
+    void importUsers_ShouldStopAtBrokenInputAndKeepEarlierRows() throws Exception {
+        String ndjson = """
+                {"username":"a","createdBy":"admin"}
+                {"username":"b", "createdBy"
+                """;
+        BulkImportResultDto result;
+        try (MappingIterator<CreateUserDto> users = Jackson2ObjectMapperBuilder.json().build()
+                .readerFor(CreateUserDto.class).readValues(ndjson)) {
+            result = userBulkService.importUsers(users);
+        }
+
+        assertEquals(2, result.getTotal());
+        assertEquals(1, result.getCreated());
+        assertEquals(BulkUserResultDto.Status.FAILED, result.getResults().get(1).getStatus());
+    }
+
+    @Test
+    void importUsers_ShouldReportInvalidRowsWithoutFailingTheChunk() {
+        CreateUserDto noCreator = user("b");
+        noCreator.setCreatedBy(null);
+        CreateUserDto unknownRole = user("c");
+        unknownRole.setRoles(Set.of("ROLE_USER", "ROLE_GHOST"));
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of("d"));
+
+        BulkImportResultDto result = userBulkService.importUsers(
+                List.of(user("a"), noCreator, unknownRole, user("d"), user("e"), user("e")).iterator());
+
+        assertEquals(6, result.getTotal());
+        assertEquals(2, result.getCreated());
+        assertEquals(4, result.getFailed());
+        assertEquals("CreatedBy cannot be null", result.getResults().get(1).getError());
+        assertEquals("Role not found: ROLE_GHOST", result.getResults().get(2).getError());
+        assertEquals("Username already exists: d", result.getResults().get(3).getError());
+        assertEquals(BulkUserResultDto.Status.CREATED, result.getResults().get(4).getStatus());
+        assertEquals("Username already exists: e", result.getResults().get(5).getError());
+    }
+
+    @Test
+    void importUsers_ShouldRetryRowByRowWhenChunkFails() {
+        when(userRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            List<User> saved = new ArrayList<>();
+            for (User user : invocation.<Iterable<User>>getArgument(0)) {
+                saved.add(user);
+            }
+            if (saved.size() > 1 || saved.get(0).getUsername().equals("bad")) {
+                throw new IllegalStateException("constraint violation");
+            }
+            saved.get(0).setId(ids.incrementAndGet());
+            return saved;
+        });
+
+        BulkImportResultDto result = userBulkService.importUsers(List.of(user("good"), user("bad")).iterator());
+
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertEquals(BulkUserResultDto.Status.CREATED, result.getResults().get(0).getStatus());
+        assertEquals("constraint violation", result.getResults().get(1).getError());
+    }
+
+    @Test
+    void approveUsers_ShouldApplyOneStatementAndOneAuditBatchPerChunk() {
+        when(userRepository.existsByUsername("admin")).thenReturn(true);
+        when(userRepository.lockAllByIdIn(List.of(1L, 2L))).thenReturn(List.of(row(1L, false), row(2L, true)));
+        when(userRepository.lockAllByIdIn(List.of(3L))).thenReturn(List.of());
+
+        BulkActionResultDto result = userBulkService.approveUsers(selectIds(1L, 2L, 1L, 3L), "admin");
+
+        assertEquals(3, result.getTotal());
+        assertEquals(1, result.getSucceeded());
+        assertEquals(1, result.getSkipped());
+        assertEquals(1, result.getFailed());
+        assertEquals(List.of(BulkActionOutcomeDto.Status.APPROVED, BulkActionOutcomeDto.Status.ALREADY_APPROVED,
+                        BulkActionOutcomeDto.Status.NOT_FOUND),
+                result.getResults().stream().map(BulkActionOutcomeDto::getStatus).toList());
+        verify(userRepository, times(1)).approveAllByIdIn(List.of(1L));
+        verify(auditSink, times(1)).recordAll(argThat(events -> events.size() == 1
+                && "admin".equals(events.get(0).getPerformedBy()) && "user1".equals(events.get(0).getUsername())));
+        verify(userProfileCache, times(1)).invalidate("user1");
+    }
+
+    @Test
+    void approveUsers_ShouldWalkFilterByIdKeyset() {
+        when(userRepository.existsByUsername("admin")).thenReturn(true);
+        when(userRepository.findIdsAfter(eq(0L), eq(false), eq("hr-sync"), isNull(), any(Limit.class))).thenReturn(List.of(1L, 2L));
+        when(userRepository.findIdsAfter(eq(2L), eq(false), eq("hr-sync"), isNull(), any(Limit.class))).thenReturn(List.of(3L));
+        when(userRepository.lockAllByIdIn(anyCollection())).thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0)
+                .stream().map(id -> row(id, false)).toList());
+        UserSearchCriteria filter = new UserSearchCriteria();
+        filter.setApproved(false);
+        filter.setCreatedBy("hr-sync");
+        BulkUserSelectionDto selection = new BulkUserSelectionDto();
+        selection.setFilter(filter);
+
+        BulkActionResultDto result = userBulkService.approveUsers(selection, "admin");
+
+        assertEquals(3, result.getSucceeded());
+        verify(userRepository, times(2)).approveAllByIdIn(anyCollection());
+        verify(auditSink, times(2)).recordAll(anyList());
+    }
+
+    @Test
+    void removeUsers_ShouldReportFailedChunkWithoutStopping() {
+        when(userRepository.existsByUsername("admin")).thenReturn(true);
+        when(userRepository.lockAllByIdIn(List.of(1L, 2L))).thenThrow(new IllegalStateException("lock timeout"));
+        when(userRepository.lockAllByIdIn(List.of(3L))).thenReturn(List.of(row(3L, true)));
+
+        BulkActionResultDto result = userBulkService.removeUsers(selectIds(1L, 2L, 3L), "admin");
+
+        assertEquals(1, result.getSucceeded());
+        assertEquals(2, result.getFailed());
+        assertEquals("lock timeout", result.getResults().get(0).getError());
+        assertEquals(BulkActionOutcomeDto.Status.REMOVED, result.getResults().get(2).getStatus());
+        verify(userRepository, times(1)).deleteUsersByIdIn(Set.of(3L));
+        verify(roleMembershipIndex, times(1)).removeAfterCommit(Set.of(3L));
+        verify(auditSink, times(1)).recordAll(argThat(events -> events.size() == 1
+                && "admin".equals(events.get(0).getPerformedBy()) && "user3".equals(events.get(0).getUsername())));
+    }
+
+    @Test
+    void approveUsers_ShouldRejectUnknownApproverAndAmbiguousSelection() {
+        when(userRepository.existsByUsername("admin")).thenReturn(true);
+        BulkUserSelectionDto both = selectIds(1L);
+        both.setFilter(new UserSearchCriteria());
+
+        assertThrows(ResourceNotFoundException.class, () -> userBulkService.approveUsers(selectIds(1L), "ghost"));
+        assertThrows(ValidationException.class, () -> userBulkService.approveUsers(both, "admin"));
+        assertThrows(ValidationException.class, () -> userBulkService.approveUsers(new BulkUserSelectionDto(), "admin"));
+        verify(userRepository, never()).lockAllByIdIn(anyCollection());
+    }
+
+    @Test
+    void approveAndRemoveUsers_ShouldRejectEmptyFilter() {
+        when(userRepository.existsByUsername("admin")).thenReturn(true);
+        BulkUserSelectionDto everyone = new BulkUserSelectionDto();
+        everyone.setFilter(new UserSearchCriteria());
+
+        assertThrows(ValidationException.class, () -> userBulkService.approveUsers(everyone, "admin"));
+        assertThrows(ValidationException.class, () -> userBulkService.removeUsers(everyone, "admin"));
+        verify(userRepository, never()).findIdsAfter(any(), any(), any(), any(), any(Limit.class));
+        verify(userRepository, never()).lockAllByIdIn(anyCollection());
+    }
+
+    private static BulkUserSelectionDto selectIds(Long... ids) {
+        BulkUserSelectionDto selection = new BulkUserSelectionDto();
+        selection.setIds(List.of(ids));
+        return selection;
+    }
+
+    private static UserRepository.UserRow row(Long id, boolean approved) {
+        return new UserRepository.UserRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getUsername() {
+                return "user" + id;
+            }
+
+            @Override
+            public Boolean getApproved() {
+                return approved;
+            }
+        };
+    }
+
+    private CreateUserDto user(String username) {
+        CreateUserDto dto = new CreateUserDto();
+        dto.setUsername(username);
+        dto.setCreatedBy("hr-sync");
+        dto.setRoles(Set.of("ROLE_USER"));
+        return dto;
+    }
+}
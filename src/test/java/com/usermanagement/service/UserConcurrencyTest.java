@@ -0,0 +1,133 @@
+package com.usermanagement.service;
+
+import com.usermanagement.dto.AuditLogDto;
+import com.usermanagement.dto.AuditSearchCriteria;
+import com.usermanagement.dto.CreateRoleDto;
+import com.usermanagement.dto.CreateUserDto;
+import com.usermanagement.dto.UserDto;
+import com.usermanagement.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers one user from many threads and checks that every operation reported as successful is reflected
+ * in the final row exactly once.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrency;DB_CLOSE_DELAY=-1",
+        "app.retry.max-attempts=50",
+        "app.retry.backoff-ms=5"
+})
+class UserConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Test
+    void assignRoles_ShouldNotLoseConcurrentAssignments() throws Exception {
+        List<CreateRoleDto> roles = IntStream.range(0, THREADS).mapToObj(i -> {
+            CreateRoleDto role = new CreateRoleDto();
+            role.setName("ROLE_CONCURRENT_" + i);
+            return role;
+        }).collect(Collectors.toList());
+        roleService.createRoles(roles);
+        UserDto user = userService.createUser(createUserDto("concurrent-roles"), "admin");
+
+        List<UserDto> results = runConcurrently(i -> userService.assignRoles(user.getId(), Set.of("ROLE_CONCURRENT_" + i), "admin"));
+
+        UserDto reloaded = userService.getUserProfile("concurrent-roles");
+        assertEquals(roles.stream().map(CreateRoleDto::getName).collect(Collectors.toSet()), reloaded.getRoles());
+        // each assignment bumped the version exactly once
+        assertEquals(user.getVersion() + THREADS, reloaded.getVersion());
+        assertEquals(THREADS, results.stream().map(UserDto::getVersion).collect(Collectors.toSet()).size());
+    }
+
+    @Test
+    void approveUser_ShouldApproveExactlyOnce() throws Exception {
+        userService.createUser(createUserDto("approver"), "admin");
+        UserDto user = userService.createUser(createUserDto("concurrent-approval"), "admin");
+
+        List<Object> outcomes = runConcurrently(i -> {
+            try {
+                return userService.approveUser(user.getId(), "approver");
+            } catch (ValidationException e) {
+                return e;
+            }
+        });
+
+        assertEquals(1, outcomes.stream().filter(UserDto.class::isInstance).count());
+        assertEquals(THREADS - 1, outcomes.stream().filter(ValidationException.class::isInstance).count());
+        UserDto reloaded = userService.getUserProfile("concurrent-approval");
+        assertTrue(reloaded.getApproved());
+        assertEquals(user.getVersion() + 1, reloaded.getVersion());
+
+        // the audit entry is found under the approver, not the approved user
+        AuditSearchCriteria criteria = new AuditSearchCriteria();
+        criteria.setPerformedBy("approver");
+        criteria.setAction("APPROVE_USER");
+        List<AuditLogDto> approvals = auditService.searchAuditLog(criteria, null, 10).getContent();
+        assertEquals(1, approvals.size());
+        assertEquals("concurrent-approval", approvals.get(0).getUsername());
+        assertEquals(user.getId(), approvals.get(0).getUserId());
+    }
+
+    private <T> List<T> runConcurrently(IndexedTask<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int index = i;
+                futures.add(executor.submit((Callable<T>) () -> {
+                    start.await();
+                    return task.run(index);
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static CreateUserDto createUserDto(String username) {
+        CreateUserDto dto = new CreateUserDto();
+        dto.setUsername(username);
+        dto.setCreatedBy("admin");
+        dto.setRoles(new HashSet<>());
+        return dto;
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask<T> {
+        T run(int index);
+    }
+}
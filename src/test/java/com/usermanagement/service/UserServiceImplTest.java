@@ -1,25 +1,44 @@
 package com.usermanagement.service;
 
+import com.usermanagement.audit.AuditEvent;
+import com.usermanagement.audit.AuditSink;
+import com.usermanagement.cache.RoleCache;
+import com.usermanagement.cache.RoleMembershipIndex;
+import com.usermanagement.cache.UserProfileCache;
+import com.usermanagement.cache.UserSetVersion;
 import com.usermanagement.dto.CreateUserDto;
+import com.usermanagement.dto.RoleMatch;
 import com.usermanagement.dto.UserDto;
+import com.usermanagement.dto.UserPageDto;
+import com.usermanagement.dto.UserSearchCriteria;
+import com.usermanagement.exception.PreconditionFailedException;
 import com.usermanagement.exception.ResourceNotFoundException;
 import com.usermanagement.exception.ValidationException;
-import com.usermanagement.model.AuditLog;
+import com.usermanagement.mapper.RoleNameSets;
+import com.usermanagement.mapper.UserMapper;
+import com.usermanagement.mapper.UserMapperImpl;
 import com.usermanagement.model.Role;
 import com.usermanagement.model.User;
-import com.usermanagement.repository.AuditLogRepository;
-import com.usermanagement.repository.RoleRepository;
 import com.usermanagement.repository.UserRepository;
+import com.usermanagement.security.DatabaseUserDetailsService;
 import com.usermanagement.service.impl.UserServiceImpl;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.nio.file.AccessDeniedException;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -32,17 +51,45 @@ class UserServiceImplTest {
     private UserRepository userRepository;
 
     @Mock
-    private RoleRepository roleRepository;
+    private RoleCache roleCache;
 
     @Mock
-    private AuditLogRepository auditLogRepository;
+    private UserProfileCache userProfileCache;
+
+    @Mock
+    private UserSetVersion userSetVersion;
+
+    @Mock
+    private RoleMembershipIndex roleMembershipIndex;
+
+    @Mock
+    private DatabaseUserDetailsService userDetailsService;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private AuditSink auditSink;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private UserMapper userMapper = new UserMapperImpl(new RoleNameSets());
 
     @InjectMocks
     private UserServiceImpl userService;
 
     @BeforeEach
+    @SuppressWarnings("unchecked")
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.invokeMethod(userService, "init");
+        when(userProfileCache.get(anyString(), any())).thenAnswer(invocation ->
+                invocation.getArgument(1, Function.class).apply(invocation.getArgument(0)));
     }
 
     @Test
@@ -61,16 +108,33 @@ class UserServiceImplTest {
         Role role = new Role();
         role.setName("ROLE_USER");
 
-        when(roleRepository.findByName("ROLE_USER")).thenReturn(role);
+        when(roleCache.findAllByName(Set.of("ROLE_USER"))).thenReturn(Map.of("ROLE_USER", role));
         when(userRepository.save(any(User.class))).thenReturn(user);
 
         UserDto result = userService.createUser(createUserDto, "admin");
 
         assertNotNull(result);
         assertEquals("testuser", result.getUsername());
-        verify(roleRepository, times(1)).findByName("ROLE_USER");
+        verify(roleCache, times(1)).findAllByName(Set.of("ROLE_USER"));
         verify(userRepository, times(1)).save(any(User.class));
-        verify(auditLogRepository, times(1)).save(any(AuditLog.class));
+        verify(userSetVersion, times(1)).advance();
+        verify(roleMembershipIndex, times(1)).addAfterCommit(any(), eq(Set.of(role)));
+        verify(auditSink, times(1)).record(argThat(event -> "admin".equals(event.getPerformedBy())
+                && "testuser".equals(event.getUsername())));
+    }
+
+    @Test
+    void createUser_ShouldStoreOnlyThePasswordHash() {
+        CreateUserDto createUserDto = new CreateUserDto();
+        createUserDto.setUsername("testuser");
+        createUserDto.setCreatedBy("admin");
+        createUserDto.setPassword("secret");
+        when(passwordEncoder.encode("secret")).thenReturn("hashed");
+
+        userService.createUser(createUserDto, "admin");
+
+        verify(userRepository).save(argThat(user -> "hashed".equals(user.getPasswordHash())));
+        assertFalse(createUserDto.toString().contains("secret"));
     }
 
     @Test
@@ -91,12 +155,31 @@ class UserServiceImplTest {
         createUserDto.setCreatedBy("admin");
         createUserDto.setRoles(Set.of("ROLE_USER"));
 
-        when(roleRepository.findByName("ROLE_USER")).thenReturn(null);
+        when(roleCache.findAllByName(Set.of("ROLE_USER"))).thenReturn(Map.of());
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> userService.createUser(createUserDto, "admin"));
         assertEquals("Role not found: ROLE_USER", exception.getMessage());
     }
 
+    @Test
+    void assignRoles_ShouldReportAllMissingRolesTogether() {
+        Long userId = 1L;
+        User user = new User();
+        user.setId(userId);
+        user.setUsername("testuser");
+
+        Role role = new Role();
+        role.setName("ROLE_USER");
+
+        Set<String> roleNames = Set.of("ROLE_USER", "ROLE_B", "ROLE_A");
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(roleCache.findAllByName(roleNames)).thenReturn(Map.of("ROLE_USER", role));
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> userService.assignRoles(userId, roleNames, "admin"));
+        assertEquals("Role not found: ROLE_A, ROLE_B", exception.getMessage());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
     @Test
     void assignRoles_ShouldReturnUserWithAssignedRoles() {
         Long userId = 1L;
@@ -108,18 +191,21 @@ class UserServiceImplTest {
         role.setName("ROLE_ADMIN");
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(roleRepository.findByName("ROLE_ADMIN")).thenReturn(role);
+        when(roleCache.findAllByName(Set.of("ROLE_ADMIN"))).thenReturn(Map.of("ROLE_ADMIN", role));
         when(userRepository.save(any(User.class))).thenReturn(user);
 
 
-        UserDto result = userService.assignRoles(userId, Set.of("ROLE_ADMIN"));
+        UserDto result = userService.assignRoles(userId, Set.of("ROLE_ADMIN"), "admin");
 
         assertNotNull(result);
         assertTrue(result.getRoles().contains("ROLE_ADMIN"));
         verify(userRepository, times(1)).findById(userId);
-        verify(roleRepository, times(1)).findByName("ROLE_ADMIN");
+        verify(roleCache, times(1)).findAllByName(Set.of("ROLE_ADMIN"));
         verify(userRepository, times(1)).save(any(User.class));
-        verify(auditLogRepository, times(1)).save(any(AuditLog.class));
+        verify(userDetailsService, times(1)).invalidate("testuser");
+        verify(roleMembershipIndex, times(1)).addAfterCommit(userId, Set.of(role));
+        verify(auditSink, times(1)).record(argThat(event -> "admin".equals(event.getPerformedBy())
+                && "testuser".equals(event.getUsername())));
     }
 
     @Test
@@ -127,24 +213,70 @@ class UserServiceImplTest {
         Long userId = 1L;
         String approvedBy = "admin";
 
-        User user = new User();
-        user.setId(userId);
-        user.setUsername("testuser");
-        user.setApproved(false);
-
-        User approver = new User();
-        approver.setUsername(approvedBy);
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(userRepository.findByUsername(approvedBy)).thenReturn(approver);
+        when(userRepository.existsByUsername(approvedBy)).thenReturn(true);
+        when(userRepository.approve(userId, null)).thenReturn(1);
+        List<UserRepository.ProfileRow> rows = List.of(profileRow("ROLE_USER"), profileRow("ROLE_ADMIN"));
+        when(userRepository.findProfileRowsById(userId)).thenReturn(rows);
 
         UserDto result = userService.approveUser(userId, approvedBy);
 
         assertNotNull(result);
         assertTrue(result.getApproved());
-        verify(userRepository, times(1)).findById(userId);
-        verify(userRepository, times(1)).findByUsername(approvedBy);
-        verify(auditLogRepository, times(1)).save(any(AuditLog.class));
+        assertEquals(2L, result.getVersion());
+        assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"), result.getRoles());
+        verify(userProfileCache, times(1)).invalidate("testuser");
+        verify(userRepository, times(1)).approve(userId, null);
+        verify(userRepository, never()).findById(anyLong());
+        verify(userRepository, never()).findByUsername(anyString());
+        verify(auditSink, times(1)).record(argThat(event -> "admin".equals(event.getPerformedBy())
+                && "testuser".equals(event.getUsername())));
+    }
+
+    @Test
+    void approveUser_ShouldRejectAlreadyApprovedUser() {
+        when(userRepository.existsByUsername("admin")).thenReturn(true);
+        when(userRepository.approve(1L, null)).thenReturn(0);
+        when(userRepository.findApprovalStateById(1L)).thenReturn(Optional.of(approvalState(true, 3L)));
+
+        assertThrows(ValidationException.class, () -> userService.approveUser(1L, "admin"));
+        verify(auditSink, never()).record(any(AuditEvent.class));
+    }
+
+    @Test
+    void approveUser_ShouldThrowResourceNotFoundException_WhenApproverNotFound() {
+        when(userRepository.existsByUsername("ghost")).thenReturn(false);
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> userService.approveUser(1L, "ghost"));
+        assertEquals("Approver not found: ghost", exception.getMessage());
+        verify(userRepository, never()).approve(anyLong(), any());
+    }
+
+    @Test
+    void approveUser_ShouldRejectStaleVersion() {
+        when(userRepository.existsByUsername("admin")).thenReturn(true);
+        when(userRepository.approve(1L, 4L)).thenReturn(0);
+        when(userRepository.findApprovalStateById(1L)).thenReturn(Optional.of(approvalState(false, 5L)));
+
+        assertThrows(PreconditionFailedException.class, () -> userService.approveUser(1L, "admin", 4L));
+        verify(userRepository, never()).findById(anyLong());
+        verify(auditSink, never()).record(any(AuditEvent.class));
+    }
+
+    @Test
+    void updateUser_ShouldRejectStaleVersion() {
+        User user = new User();
+        user.setId(1L);
+        user.setCreatedBy("admin");
+        user.setFirstName("Original");
+        user.setVersion(2L);
+        CreateUserDto updateUserDto = new CreateUserDto();
+        updateUserDto.setFirstName("Changed");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertThrows(PreconditionFailedException.class, () -> userService.updateUser(1L, updateUserDto, "admin", 1L));
+        assertEquals("Original", user.getFirstName());
+        verify(userRepository, never()).flush();
     }
 
     @Test
@@ -152,7 +284,8 @@ class UserServiceImplTest {
         Long userId = 1L;
         String approvedBy = "admin";
 
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.existsByUsername(approvedBy)).thenReturn(true);
+        when(userRepository.findApprovalStateById(userId)).thenReturn(Optional.empty());
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> userService.approveUser(userId, approvedBy));
         assertEquals("User not found: " + userId, exception.getMessage());
@@ -184,7 +317,8 @@ class UserServiceImplTest {
         assertEquals("updated@example.com", result.getEmail());
         verify(userRepository, times(1)).findById(userId);
         verify(userRepository, times(1)).save(any(User.class));
-        verify(auditLogRepository, times(1)).save(any(AuditLog.class));
+        verify(auditSink, times(1)).record(argThat(event -> "admin".equals(event.getPerformedBy())
+                && "testuser".equals(event.getUsername())));
     }
 
     @Test
@@ -210,21 +344,20 @@ class UserServiceImplTest {
         Long userId = 1L;
         String removedBy = "admin";
 
-        User user = new User();
-        user.setId(userId);
-        user.setUsername("testuser");
-
-        User remover = new User();
-        remover.setUsername(removedBy);
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(userRepository.findByUsername(removedBy)).thenReturn(remover);
+        when(userRepository.findUsernameById(userId)).thenReturn(Optional.of("testuser"));
+        when(userRepository.existsByUsername(removedBy)).thenReturn(true);
+        when(userRepository.deleteUserById(userId)).thenReturn(1);
 
         userService.removeUser(userId, removedBy);
 
-        verify(userRepository, times(1)).findById(userId);
-        verify(userRepository, times(1)).delete(user);
-        verify(auditLogRepository, times(1)).save(any(AuditLog.class));
+        verify(userRepository, never()).findById(anyLong());
+        verify(userRepository, times(1)).deleteUserById(userId);
+        verify(userProfileCache, times(1)).invalidate("testuser");
+        verify(userDetailsService, times(1)).invalidate("testuser");
+        verify(userSetVersion, times(1)).advance();
+        verify(roleMembershipIndex, times(1)).removeAfterCommit(List.of(userId));
+        verify(auditSink, times(1)).record(argThat(event -> "admin".equals(event.getPerformedBy())
+                && "testuser".equals(event.getUsername())));
     }
 
     @Test
@@ -232,31 +365,11 @@ class UserServiceImplTest {
         Long userId = 1L;
         String removedBy = "admin";
 
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.findUsernameById(userId)).thenReturn(Optional.empty());
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> userService.removeUser(userId, removedBy));
         assertEquals("User not found: " + userId, exception.getMessage());
-    }
-
-    @Test
-    void listUsers_ShouldReturnListOfUsers() {
-        User user1 = new User();
-        user1.setId(1L);
-        user1.setUsername("user1");
-
-        User user2 = new User();
-        user2.setId(2L);
-        user2.setUsername("user2");
-
-        when(userRepository.findAll()).thenReturn(Arrays.asList(user1, user2));
-
-        List<UserDto> result = userService.listUsers();
-
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals("user1", result.get(0).getUsername());
-        assertEquals("user2", result.get(1).getUsername());
-        verify(userRepository, times(1)).findAll();
+        verify(userSetVersion, never()).advance();
     }
 
     @Test
@@ -272,7 +385,18 @@ class UserServiceImplTest {
 
         assertNotNull(result);
         assertEquals(username, result.getUsername());
+        verify(userProfileCache, times(1)).get(eq(username), any());
         verify(userRepository, times(1)).findByUsername(username);
+        verify(transactionManager, times(1)).getTransaction(argThat(definition -> definition.isReadOnly()));
+    }
+
+    @Test
+    void getUserProfile_ShouldNotOpenTransactionOnCacheHit() {
+        UserDto cached = new UserDto();
+        when(userProfileCache.get(eq("testuser"), any())).thenReturn(cached);
+
+        assertSame(cached, userService.getUserProfile("testuser"));
+        verifyNoInteractions(transactionManager, userRepository);
     }
 
     @Test
@@ -284,4 +408,153 @@ class UserServiceImplTest {
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> userService.getUserProfile(username));
         assertEquals("User not found: " + username, exception.getMessage());
     }
+
+    @Test
+    void listUsersPage_ShouldReturnNextCursor_WhenMoreRowsExist() {
+        User user1 = new User();
+        user1.setId(5L);
+        user1.setUsername("user1");
+
+        User user2 = new User();
+        user2.setId(7L);
+        user2.setUsername("user2");
+
+        UserSearchCriteria criteria = new UserSearchCriteria();
+        criteria.setApproved(true);
+
+        when(userRepository.findIdsAfter(4L, true, null, null, Limit.of(3)))
+                .thenReturn(Arrays.asList(5L, 7L, 9L));
+        when(userRepository.findAllWithRolesByIdIn(Arrays.asList(5L, 7L)))
+                .thenReturn(Arrays.asList(user1, user2));
+
+        UserPageDto result = userService.listUsers(criteria, 4L, 2);
+
+        assertEquals(2, result.getContent().size());
+        assertEquals("user2", result.getContent().get(1).getUsername());
+        assertEquals(7L, result.getNextCursor());
+        assertTrue(result.isHasNext());
+        verify(userRepository, never()).findAllWithRolesByIdIn(Arrays.asList(5L, 7L, 9L));
+        // the request's persistence context must not keep earlier pages
+        verify(entityManager, times(1)).detach(user1);
+        verify(entityManager, times(1)).detach(user2);
+    }
+
+    @Test
+    void listUsersPage_ShouldReportLastPage() {
+        User user1 = new User();
+        user1.setId(1L);
+        user1.setUsername("user1");
+
+        when(userRepository.findIdsAfter(0L, null, "admin", "ROLE_USER", Limit.of(11)))
+                .thenReturn(List.of(1L));
+        when(userRepository.findAllWithRolesByIdIn(List.of(1L))).thenReturn(List.of(user1));
+
+        UserSearchCriteria criteria = new UserSearchCriteria();
+        criteria.setCreatedBy("admin");
+        criteria.setRole("ROLE_USER");
+
+        UserPageDto result = userService.listUsers(criteria, null, 10);
+
+        assertEquals(1, result.getContent().size());
+        assertEquals(1L, result.getNextCursor());
+        assertFalse(result.isHasNext());
+    }
+
+    @Test
+    void listUsersPage_ShouldThrowValidationException_WhenLimitTooLarge() {
+        UserSearchCriteria criteria = new UserSearchCriteria();
+
+        ValidationException exception = assertThrows(ValidationException.class, () -> userService.listUsers(criteria, null, 501));
+        assertEquals("Limit must be between 1 and 500", exception.getMessage());
+    }
+
+    @Test
+    void findUsersByRoles_ShouldReadOnlyThePageFromTheIndex() {
+        Role admin = new Role(1L, "ROLE_ADMIN");
+        Role user = new Role(2L, "ROLE_USER");
+        User user3 = new User();
+        user3.setId(3L);
+        user3.setUsername("user3");
+        when(roleCache.findAllByName(Set.of("ROLE_ADMIN", "ROLE_USER")))
+                .thenReturn(Map.of("ROLE_ADMIN", admin, "ROLE_USER", user));
+        when(roleMembershipIndex.findIdsAfter(argThat(ids -> Set.copyOf(ids).equals(Set.of(1L, 2L))),
+                eq(RoleMatch.ALL), eq(0L), eq(3))).thenReturn(List.of(3L, 5L, 8L));
+        // user 5 was removed after the index returned it
+        when(userRepository.findAllWithRolesByIdIn(List.of(3L, 5L))).thenReturn(List.of(user3));
+
+        UserPageDto result = userService.findUsersByRoles(Set.of("ROLE_ADMIN", "ROLE_USER"), RoleMatch.ALL, null, 2);
+
+        assertEquals(List.of("user3"), result.getContent().stream().map(UserDto::getUsername).toList());
+        assertEquals(5L, result.getNextCursor());
+        assertTrue(result.isHasNext());
+        verify(userRepository, never()).findIdsAfter(any(), any(), any(), any(), any());
+        verify(entityManager, times(1)).detach(user3);
+    }
+
+    @Test
+    void findUsersByRoles_ShouldRejectMissingAndUnknownRoles() {
+        when(roleCache.findAllByName(Set.of("ROLE_GHOST"))).thenReturn(Map.of());
+
+        ValidationException validation = assertThrows(ValidationException.class,
+                () -> userService.findUsersByRoles(Set.of(), RoleMatch.ANY, null, 10));
+        assertEquals("At least one role is required", validation.getMessage());
+        ResourceNotFoundException notFound = assertThrows(ResourceNotFoundException.class,
+                () -> userService.countUsersByRoles(Set.of("ROLE_GHOST"), RoleMatch.ANY));
+        assertEquals("Role not found: ROLE_GHOST", notFound.getMessage());
+        verifyNoInteractions(roleMembershipIndex);
+    }
+
+    @Test
+    void countUsersByRoles_ShouldAnswerFromTheIndex() {
+        when(roleCache.findAllByName(Set.of("ROLE_USER"))).thenReturn(Map.of("ROLE_USER", new Role(2L, "ROLE_USER")));
+        when(roleMembershipIndex.count(List.of(2L), RoleMatch.ANY)).thenReturn(42L);
+
+        assertEquals(42L, userService.countUsersByRoles(Set.of("ROLE_USER"), RoleMatch.ANY));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void streamUsers_ShouldPassEveryUserToConsumerAndDetach() {
+        User user1 = new User();
+        user1.setId(1L);
+        user1.setUsername("user1");
+
+        User user2 = new User();
+        user2.setId(2L);
+        user2.setUsername("user2");
+
+        when(userRepository.streamAfter(0L, null, null, null)).thenReturn(Stream.of(user1, user2));
+
+        List<UserDto> streamed = new ArrayList<>();
+        userService.streamUsers(new UserSearchCriteria(), streamed::add);
+
+        assertEquals(2, streamed.size());
+        assertEquals("user2", streamed.get(1).getUsername());
+        verify(entityManager, times(1)).detach(user1);
+        verify(entityManager, times(1)).detach(user2);
+    }
+
+    private static UserRepository.ApprovalState approvalState(Boolean approved, Long version) {
+        return new UserRepository.ApprovalState() {
+            @Override
+            public Boolean getApproved() {
+                return approved;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+
+    private static UserRepository.ProfileRow profileRow(String roleName) {
+        UserRepository.ProfileRow row = mock(UserRepository.ProfileRow.class);
+        when(row.getId()).thenReturn(1L);
+        when(row.getUsername()).thenReturn("testuser");
+        when(row.getApproved()).thenReturn(true);
+        when(row.getVersion()).thenReturn(2L);
+        when(row.getRoleName()).thenReturn(roleName);
+        return row;
+    }
 }
@@ -0,0 +1,53 @@
+package com.usermanagement.web;
+
+import com.usermanagement.metrics.QueryCountInspector;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCountFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final QueryCountInspector inspector = new QueryCountInspector();
+
+    private final QueryCountFilter filter = new QueryCountFilter();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "meterRegistry", meterRegistry);
+    }
+
+    @Test
+    void doFilter_ShouldRecordStatementsPerRequestUnderTheUriTemplate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/profile/alice");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/users/profile/{username}");
+            inspector.inspect("select ... from users");
+            inspector.inspect("select ... from user_roles");
+            inspector.inspect("select ... from roles");
+        });
+
+        DistributionSummary summary = meterRegistry.get(QueryCountFilter.SUMMARY)
+                .tag("method", "GET")
+                .tag("uri", "/api/users/profile/{username}")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(3, summary.totalAmount());
+    }
+
+    @Test
+    void inspect_ShouldNotCountOutsideARequest() {
+        inspector.inspect("select 1");
+
+        assertEquals(0, QueryCountInspector.stop());
+    }
+}